@@ -0,0 +1,30 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.AuthenticatedUser;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+// Signs the benchmark thread in as the seeded user, as the JWT filter would for a real request.
+@State(Scope.Thread)
+public class AuthenticatedCaller {
+
+    @Setup(Level.Trial)
+    public void signIn(BankingApplicationState application) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(application.userId, application.email), null,
+                List.of(new SimpleGrantedAuthority("SCOPE_ROLE_USER"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Account;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.TransactionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Deposits and withdrawals from 16 threads on the one benchmark account. conditionalUpdate and selectForUpdate do
+// the same work, a balance change and a transaction row, and differ only in how the row is updated: with the
+// service's conditional UPDATE, or with the read-modify-write it replaced under SELECT ... FOR UPDATE.
+// createTransaction is the whole service call, which also records checkpoints, rollups and metrics.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class BalanceUpdateBenchmarks {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private TransactionService transactionService;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private Long accountId;
+
+    @Setup(Level.Trial)
+    public void lookUpBeans(BankingApplicationState application) {
+        transactionService = application.bean(TransactionService.class);
+        accountRepository = application.bean(AccountRepository.class);
+        transactionRepository = application.bean(TransactionRepository.class);
+        entityManager = application.bean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+        accountId = accountRepository.findByAccountNumber(application.accountNumber).orElseThrow().getId();
+    }
+
+    @Benchmark
+    public TransactionResponseDto createTransaction(BankingApplicationState application, AuthenticatedCaller caller) {
+        return transactionService.createTransaction(application.accountNumber,
+                new CreateTransactionRequestDto(AMOUNT, "GBP", randomType(), "benchmark"));
+    }
+
+    @Benchmark
+    public Transaction conditionalUpdate() {
+        TransactionType type = randomType();
+        return transactionTemplate.execute(status -> {
+            if (type == TransactionType.DEPOSIT) {
+                accountRepository.creditBalance(accountId, AMOUNT, LocalDateTime.now());
+            } else {
+                accountRepository.debitBalance(accountId, AMOUNT, LocalDateTime.now());
+            }
+            return transactionRepository.save(new Transaction(accountRepository.getReferenceById(accountId), AMOUNT, type, "benchmark"));
+        });
+    }
+
+    @Benchmark
+    public Transaction selectForUpdate() {
+        TransactionType type = randomType();
+        return transactionTemplate.execute(status -> {
+            Account locked = entityManager.find(Account.class, accountId, LockModeType.PESSIMISTIC_WRITE);
+            locked.setBalance(type == TransactionType.DEPOSIT ? locked.getBalance().add(AMOUNT) : locked.getBalance().subtract(AMOUNT));
+            return transactionRepository.save(new Transaction(locked, AMOUNT, type, "benchmark"));
+        });
+    }
+
+    private static TransactionType randomType() {
+        return ThreadLocalRandom.current().nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.enums.AccountType;
+import com.example.demo.model.Account;
+import com.example.demo.model.Address;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// The whole application, started once per fork against its own in-memory H2 database, with one user and one
+// account to benchmark against. The database also holds the standard synthetic dataset, so queries run against
+// realistically sized tables; pass -jvmArgsAppend -Dbanking.synthetic-data.users=... in jmh.args to resize it.
+// Application logging is turned down so it does not dominate the measurements.
+@State(Scope.Benchmark)
+public class BankingApplicationState {
+
+    ConfigurableApplicationContext context;
+    Long userId;
+    String email;
+    String accountNumber;
+
+    @Setup(Level.Trial)
+    public void start() {
+        start("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    // Arguments rather than default properties, which application.properties would override.
+    void start(String... arguments) {
+        List<String> args = new ArrayList<>(List.of(arguments));
+        args.add("--banking.synthetic-data.users=" + System.getProperty("banking.synthetic-data.users", "2000"));
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run(args.toArray(String[]::new));
+
+        Address address = new Address("1 Benchmark Way", null, null, "Throughput", "Test County", "BM1 1BM");
+        User user = bean(UserRepository.class).save(new User("benchmark@example.com", "not-used", "USER",
+                "Benchmark User", address, "+447700000000"));
+        Account account = new Account("Benchmark Account", AccountType.PERSONAL, user);
+        account.setAccountNumber(bean(AccountNumberAllocator.class).nextAccountNumber());
+        account.setBalance(new BigDecimal("1000000.00"));
+        bean(AccountRepository.class).save(account);
+
+        userId = user.getId();
+        email = user.getEmail();
+        accountNumber = account.getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
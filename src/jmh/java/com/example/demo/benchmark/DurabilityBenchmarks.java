@@ -0,0 +1,101 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// The write path (createTransaction) on the default in-memory database and on the durable profile's database file,
+// which writes every commit to disk before it returns. Each durable trial starts from an empty file in a temporary
+// directory. Add -t 4 to jmh.args to see how concurrent writers share the commit cost.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DurabilityBenchmarks {
+
+    private static final CreateTransactionRequestDto DEPOSIT =
+            new CreateTransactionRequestDto(new BigDecimal("1.00"), "GBP", TransactionType.DEPOSIT, "benchmark");
+
+    @State(Scope.Benchmark)
+    public static class Storage {
+
+        @Param({"in-memory", "durable"})
+        public String storage;
+
+        final BankingApplicationState application = new BankingApplicationState();
+        TransactionService transactionService;
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            if ("durable".equals(storage)) {
+                directory = Files.createTempDirectory("banking-durable");
+                application.start("--spring.profiles.active=durable", "--banking.storage.directory=" + directory);
+            } else {
+                application.start();
+            }
+            transactionService = application.bean(TransactionService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            application.stop();
+            if (directory != null) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                        try {
+                            Files.delete(file);
+                        } catch (IOException exception) {
+                            throw new UncheckedIOException(exception);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private final AuthenticatedCaller caller = new AuthenticatedCaller();
+
+        @Setup(Level.Trial)
+        public void signIn(Storage storage) {
+            caller.signIn(storage.application);
+        }
+
+        @TearDown(Level.Trial)
+        public void signOut() {
+            caller.signOut();
+        }
+    }
+
+    @Benchmark
+    public TransactionResponseDto createTransaction(Storage storage, Caller caller) {
+        return storage.transactionService.createTransaction(storage.application.accountNumber, DEPOSIT);
+    }
+}
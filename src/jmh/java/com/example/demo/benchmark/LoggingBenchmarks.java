@@ -0,0 +1,122 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// What one request's log line costs the thread that writes it: the old formatted message on a synchronous
+// appender, against key-value pairs on the async appender from logback-spring.xml. The async results only hold
+// while the queue keeps up; past that the appender drops INFO events instead of making callers wait.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmarks {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%15.15t] %-40.40logger{39} : %m%replace( %kvp{NONE}){'^ $',''}%n";
+    private static final TransactionType TYPE = TransactionType.DEPOSIT;
+    private static final BigDecimal AMOUNT = new BigDecimal("125.50");
+    private static final String ACCOUNT_NUMBER = "01234567";
+    private static final String EMAIL = "benchmark@example.com";
+    private static final long USER_ID = 42L;
+    private static final long TRANSACTION_ID = 100_001L;
+    private static final Path DEV_NULL = Path.of("/dev/null");
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private Path sinkFile;
+
+    @Setup
+    public void configure() throws IOException {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        // A real write per event, as to a console, without filling the disk where /dev/null is available.
+        sinkFile = Files.isWritable(DEV_NULL) ? DEV_NULL : Files.createTempFile("logging-benchmark", ".log");
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(loggerContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new FileOutputStream(sinkFile.toFile()));
+        sink.start();
+
+        Appender<ILoggingEvent> rootAppender = sink;
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(sink);
+            async.start();
+            rootAppender = async;
+        }
+
+        ch.qos.logback.classic.Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(rootAppender);
+        logger = loggerContext.getLogger(TransactionService.class);
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+        loggerContext.stop();
+        if (!sinkFile.equals(DEV_NULL)) {
+            Files.deleteIfExists(sinkFile);
+        }
+    }
+
+    // The line TransactionService.createTransaction used to write.
+    @Benchmark
+    public void formattedMessage() {
+        logger.info("Transaction (Type: {}, Amount: {}) created for account {} by user {}. Transaction ID: {}",
+                TYPE, AMOUNT, ACCOUNT_NUMBER, EMAIL, TRANSACTION_ID);
+    }
+
+    @Benchmark
+    public void keyValueMessage() {
+        logger.atInfo()
+                .addKeyValue("transactionId", TRANSACTION_ID)
+                .addKeyValue("accountNumber", ACCOUNT_NUMBER)
+                .addKeyValue("type", TYPE)
+                .addKeyValue("amount", AMOUNT)
+                .addKeyValue("userId", USER_ID)
+                .log("Transaction created");
+    }
+}
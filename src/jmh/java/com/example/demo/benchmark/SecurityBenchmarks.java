@@ -0,0 +1,71 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.BankUserDetails;
+import com.example.demo.service.AuthService;
+import com.example.demo.security.JwkSetJwtProcessor;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityBenchmarks {
+
+    private AuthService authService;
+    private JwtDecoder jwtDecoder;
+    private JwtDecoder verifyingDecoder;
+    private Authentication authentication;
+    private String token;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void issueToken(BankingApplicationState application) {
+        authService = application.bean(AuthService.class);
+        jwtDecoder = application.bean(JwtDecoder.class);
+        verifyingDecoder = new NimbusJwtDecoder(new JwkSetJwtProcessor(application.bean(JWKSource.class)));
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        authentication = UsernamePasswordAuthenticationToken.authenticated(
+                new BankUserDetails(application.userId, application.email, "", authorities), null, authorities);
+        token = authService.createToken(authentication);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return authService.createToken(authentication);
+    }
+
+    // A client reusing its token: served from the verified-token cache after the first request.
+    @Benchmark
+    public Jwt decodeToken() {
+        return jwtDecoder.decode(token);
+    }
+
+    // What every request paid before the cache: signature verification and claim parsing.
+    @Benchmark
+    public Jwt verifyToken() {
+        return verifyingDecoder.decode(token);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.transactions.ListTransactionsResponseDto;
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.enums.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialises a page of transaction history with the application's own ObjectMapper, as the controller would.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmarks {
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private ListTransactionsResponseDto page;
+
+    @Setup(Level.Trial)
+    public void buildPage(BankingApplicationState application) {
+        writer = application.bean(ObjectMapper.class).writerFor(ListTransactionsResponseDto.class);
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<TransactionResponseDto> transactions = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            transactions.add(new TransactionResponseDto((long) i, new BigDecimal("12.34").add(BigDecimal.valueOf(i)), "GBP",
+                    i % 3 == 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT, "Card payment " + i,
+                    application.userId, timestamp.plusSeconds(i), null));
+        }
+        page = new ListTransactionsResponseDto(transactions, "MjAyNS0wMS0wMVQwOTowMHw0OQ");
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
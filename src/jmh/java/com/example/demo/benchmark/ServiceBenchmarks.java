@@ -0,0 +1,53 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.accounts.AccountResponseDto;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.service.AccountService;
+import com.example.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmarks {
+
+    private static final CreateTransactionRequestDto DEPOSIT =
+            new CreateTransactionRequestDto(new BigDecimal("1.00"), "GBP", TransactionType.DEPOSIT, "benchmark");
+
+    private TransactionService transactionService;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void lookUpServices(BankingApplicationState application) {
+        transactionService = application.bean(TransactionService.class);
+        accountService = application.bean(AccountService.class);
+    }
+
+    @Benchmark
+    public TransactionResponseDto createTransaction(BankingApplicationState application, AuthenticatedCaller caller) {
+        return transactionService.createTransaction(application.accountNumber, DEPOSIT);
+    }
+
+    @Benchmark
+    public AccountResponseDto findAccountByAccountNumber(BankingApplicationState application, AuthenticatedCaller caller) {
+        return accountService.findAccountByAccountNumber(application.accountNumber);
+    }
+}
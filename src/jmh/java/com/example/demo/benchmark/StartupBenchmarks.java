@@ -0,0 +1,132 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Time from launching the application to its first successful sign-in, for the plain jar, the extracted jar, and
+// the fast-start build (extracted, with AOT-processed beans and the class-data archive from the training run).
+// Needs the fast-start build in target: mvn -Pfast-start,benchmark verify -Djmh.args="StartupBenchmarks"
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmarks {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path FAST_START = TARGET.resolve("fast-start");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final String LOGIN = "{\"username\":\"testuser@email.com\",\"password\":\"password123\"}";
+
+    @Param({"jar", "extracted", "fast-start"})
+    public String mode;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private List<String> command;
+    private Process application;
+
+    @Setup(Level.Trial)
+    public void resolveCommand() throws IOException {
+        command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        switch (mode) {
+            case "jar" -> command.addAll(List.of("-jar", applicationJar(TARGET).toString()));
+            case "extracted" -> command.addAll(List.of("-jar", applicationJar(FAST_START).toString()));
+            case "fast-start" -> command.addAll(List.of(
+                    "-XX:SharedArchiveFile=" + requireFile(FAST_START.resolve("application.jsa")),
+                    "-Dspring.aot.enabled=true",
+                    "-jar", applicationJar(FAST_START).toString()));
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopApplication() throws InterruptedException {
+        if (application != null) {
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly().waitFor();
+            }
+            application = null;
+        }
+    }
+
+    @Benchmark
+    public int firstSuccessfulRequest() throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> launch = new ArrayList<>(command);
+        launch.add("--server.port=" + port);
+        application = new ProcessBuilder(launch)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("The application exited with status " + application.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(login, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException exception) {
+                // Not listening yet.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful sign-in within " + STARTUP_TIMEOUT);
+    }
+
+    private static Path applicationJar(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(requireFile(directory))) {
+            return files.filter(file -> file.getFileName().toString().matches("demo-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + directory + ", build it with mvn -Pfast-start package"));
+        }
+    }
+
+    private static Path requireFile(Path path) {
+        if (!Files.exists(path)) {
+            throw new IllegalStateException(path + " does not exist, build it with mvn -Pfast-start package");
+        }
+        return path;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Account;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import com.example.demo.service.AccountNumberAllocator;
+import com.example.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// The same burst of requests, each a deposit and a first page of transactions on one of 50 accounts, served by a
+// pool of 200 platform threads (Tomcat's default) or by one virtual thread per request. Both run behind the
+// connection bulkhead, as the virtual-threads profile does. Scores are per request.
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmarks {
+
+    private static final int BURST = 200;
+    private static final int ACCOUNTS = 50;
+    private static final int PLATFORM_THREADS = 200;
+    private static final CreateTransactionRequestDto DEPOSIT =
+            new CreateTransactionRequestDto(new BigDecimal("1.00"), "GBP", TransactionType.DEPOSIT, "benchmark");
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private final BankingApplicationState application = new BankingApplicationState();
+    private TransactionService transactionService;
+    private ExecutorService executor;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        application.start("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--banking.database.bulkhead.enabled=true",
+                "--banking.database.bulkhead.acquire-timeout=30s");
+        transactionService = application.bean(TransactionService.class);
+        AccountRepository accountRepository = application.bean(AccountRepository.class);
+        AccountNumberAllocator allocator = application.bean(AccountNumberAllocator.class);
+        User user = application.bean(UserRepository.class).findById(application.userId).orElseThrow();
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Load Account " + i, AccountType.PERSONAL, user);
+            account.setAccountNumber(allocator.nextAccountNumber());
+            accountNumbers[i] = accountRepository.save(account).getAccountNumber();
+        }
+        executor = "virtual".equals(threads) ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        executor.close();
+        application.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void burstOfRequests() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            String accountNumber = accountNumbers[i % ACCOUNTS];
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                        new AuthenticatedUser(application.userId, application.email), null,
+                        List.of(new SimpleGrantedAuthority("SCOPE_ROLE_USER"))));
+                try {
+                    transactionService.createTransaction(accountNumber, DEPOSIT);
+                    return transactionService.getTransactionsByAccountNumber(accountNumber, 20, null);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
+import com.example.demo.dto.transactions.TransferResponseDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.model.Account;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccountNumberAllocator;
+import com.example.demo.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Many threads moving money between random pairs of a few accounts, so most transfers wait on a row lock held by
+// another one and about half of them lock the same pair as a transfer in the opposite direction. A deadlock
+// would show up as a lock timeout failing the run.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class TransferBenchmarks {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"2", "8"})
+    public int accounts;
+
+    private TransactionService transactionService;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void seedAccounts(BankingApplicationState application) {
+        transactionService = application.bean(TransactionService.class);
+        AccountRepository accountRepository = application.bean(AccountRepository.class);
+        AccountNumberAllocator allocator = application.bean(AccountNumberAllocator.class);
+        User user = application.bean(UserRepository.class).findById(application.userId).orElseThrow();
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            Account account = new Account("Transfer Account " + i, AccountType.PERSONAL, user);
+            account.setAccountNumber(allocator.nextAccountNumber());
+            account.setBalance(new BigDecimal("1000000.00"));
+            accountNumbers[i] = accountRepository.save(account).getAccountNumber();
+        }
+    }
+
+    @Benchmark
+    public TransferResponseDto transferBetweenRandomAccounts(AuthenticatedCaller caller) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(accounts);
+        int destination = (source + 1 + random.nextInt(accounts - 1)) % accounts;
+        return transactionService.createTransfer(accountNumbers[source],
+                new CreateTransferRequestDto(accountNumbers[destination], AMOUNT, "GBP", "benchmark"));
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.demo.replay;
+
+import com.example.demo.capture.CapturedRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Replays a capture written by RequestCaptureFilter against a running instance, in the captured order and at
+// the captured pacing (or N times faster), then reports throughput and latency percentiles per endpoint.
+//
+//   mvn -Pbenchmark test-compile exec:exec@replay -Dreplay.args="--file requests.jsonl --speed 2"
+//
+// Everything runs as one user, signed in with --username/--password. Every account number seen in the capture
+// is mapped, in order of first appearance, to a fresh account of that user funded with --fund, so a capture
+// replays the same way every time. Captured Idempotency-Keys are prefixed with an id for this run: retries within
+// the capture still share a key, but a second run is not answered from the first run's records. Captured logins and registrations are skipped because their credentials
+// were redacted. Latency is measured from when a request was due rather than when it was sent, so a server
+// that falls behind shows up in the percentiles instead of silently slowing the replay down.
+public final class TrafficReplay {
+
+    private static final Pattern ACCOUNT_PATH = Pattern.compile("(?<=/v1/accounts/)(\\d{8})(?=/|$)");
+    private static final Pattern USER_PATH = Pattern.compile("(?<=/v1/users/)(\\d+)(?=/|$)");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Options options;
+    private final Map<String, String> accountNumbers = new HashMap<>();
+    private final String runId = UUID.randomUUID().toString();
+    private String token;
+    private long userId;
+
+    private TrafficReplay(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new TrafficReplay(Options.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        List<CapturedRequest> requests = new ArrayList<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(options.file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                CapturedRequest request = parse(line);
+                if (request == null || isCredentialRequest(request)) {
+                    skipped++;
+                } else {
+                    requests.add(request);
+                }
+            }
+        }
+        if (requests.isEmpty()) {
+            System.out.printf("No replayable requests in %s (%d lines skipped).%n", options.file, skipped);
+            return;
+        }
+
+        signIn();
+        for (CapturedRequest request : requests) {
+            Matcher matcher = ACCOUNT_PATH.matcher(request.path());
+            if (matcher.find() && !accountNumbers.containsKey(matcher.group(1))) {
+                accountNumbers.put(matcher.group(1), createFundedAccount());
+            }
+        }
+        System.out.printf("Replaying %d requests (%d skipped) against %s at %sx speed using %d accounts.%n",
+                requests.size(), skipped, options.target, options.speed == 0 ? "max" : options.speed, accountNumbers.size());
+
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(requests.size());
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (CapturedRequest request : requests) {
+                long dueNanos = options.speed == 0
+                        ? startNanos
+                        : startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(request.offsetMillis()) / options.speed);
+                long waitNanos = dueNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                EndpointStats endpoint = stats.computeIfAbsent(endpointOf(request), EndpointStats::new);
+                executor.execute(() -> {
+                    try {
+                        int status = send(request);
+                        endpoint.record(System.nanoTime() - dueNanos, status);
+                    } catch (Exception exception) {
+                        endpoint.record(System.nanoTime() - dueNanos, -1);
+                    } finally {
+                        completed.countDown();
+                    }
+                });
+            }
+            completed.await();
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        report(stats, requests.size(), elapsedSeconds);
+    }
+
+    private CapturedRequest parse(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node == null || !node.hasNonNull("method") || !node.hasNonNull("path")) {
+                return null;
+            }
+            return objectMapper.treeToValue(node, CapturedRequest.class);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private boolean isCredentialRequest(CapturedRequest request) {
+        return request.path().startsWith("/v1/auth/")
+                || ("POST".equals(request.method()) && "/v1/users".equals(request.path()));
+    }
+
+    private void signIn() throws IOException, InterruptedException {
+        ObjectNode login = objectMapper.createObjectNode().put("username", options.username).put("password", options.password);
+        HttpResponse<String> response = httpClient.send(jsonRequest("/v1/auth/login", "POST", login.toString()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + options.username + " failed with HTTP " + response.statusCode());
+        }
+        token = objectMapper.readTree(response.body()).get("jwt").asText();
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+        userId = claims.path("uid").asLong();
+    }
+
+    private String createFundedAccount() throws IOException, InterruptedException {
+        ObjectNode account = objectMapper.createObjectNode().put("name", "Replay account").put("accountType", "PERSONAL");
+        HttpResponse<String> created = httpClient.send(authorised(jsonRequest("/v1/accounts", "POST", account.toString())).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Creating a replay account failed with HTTP " + created.statusCode());
+        }
+        String accountNumber = objectMapper.readTree(created.body()).get("accountNumber").asText();
+        if (options.fund.signum() > 0) {
+            ObjectNode deposit = objectMapper.createObjectNode()
+                    .put("amount", options.fund).put("currency", "GBP").put("type", "DEPOSIT").put("reference", "Replay funding");
+            httpClient.send(authorised(jsonRequest("/v1/accounts/" + accountNumber + "/transactions", "POST", deposit.toString())).build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+        return accountNumber;
+    }
+
+    private int send(CapturedRequest request) throws IOException, InterruptedException {
+        String path = ACCOUNT_PATH.matcher(request.path()).replaceAll(match -> accountNumbers.get(match.group(1)));
+        path = USER_PATH.matcher(path).replaceAll(Long.toString(userId));
+        String uri = request.query() == null ? path : path + "?" + request.query();
+        String body = request.body() == null ? null : request.body().toString();
+        HttpRequest.Builder builder = authorised(jsonRequest(uri, request.method(), body));
+        request.headers().forEach((name, value) -> {
+            if ("Idempotency-Key".equalsIgnoreCase(name)) {
+                builder.setHeader(name, runId + ":" + value);
+            } else if (!"Content-Type".equalsIgnoreCase(name)) {
+                builder.setHeader(name, value);
+            }
+        });
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder jsonRequest(String pathAndQuery, String method, String body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body);
+        return HttpRequest.newBuilder(URI.create(options.target + pathAndQuery))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .method(method, publisher);
+    }
+
+    private HttpRequest.Builder authorised(HttpRequest.Builder builder) {
+        return builder.header("Authorization", "Bearer " + token);
+    }
+
+    private String endpointOf(CapturedRequest request) {
+        String path = ACCOUNT_PATH.matcher(request.path()).replaceAll("{accountNumber}");
+        return request.method() + " " + NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private void report(Map<String, EndpointStats> stats, int total, double elapsedSeconds) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-60s %8s %8s %8s %10s %10s %10s%n", "Endpoint", "Count", "Non-2xx", "Req/s", "p50 ms", "p99 ms", "p999 ms");
+        stats.values().stream().sorted((a, b) -> a.endpoint.compareTo(b.endpoint)).forEach(endpoint -> {
+            long[] latencies = endpoint.sortedLatencies();
+            double p50 = percentileMillis(latencies, 0.50);
+            double p99 = percentileMillis(latencies, 0.99);
+            double p999 = percentileMillis(latencies, 0.999);
+            double throughput = latencies.length / elapsedSeconds;
+            System.out.printf("%-60s %8d %8d %8.1f %10.2f %10.2f %10.2f%n",
+                    endpoint.endpoint, latencies.length, endpoint.unsuccessful(), throughput, p50, p99, p999);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", latencies.length);
+            result.put("statuses", endpoint.statusCounts());
+            result.put("throughputPerSecond", throughput);
+            result.put("p50Millis", p50);
+            result.put("p99Millis", p99);
+            result.put("p999Millis", p999);
+            endpoints.put(endpoint.endpoint, result);
+        });
+        System.out.printf("%nTotal: %d requests in %.1f s (%.1f req/s).%n", total, elapsedSeconds, total / elapsedSeconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("capture", options.file.toString());
+        report.put("target", options.target);
+        report.put("speed", options.speed);
+        report.put("requests", total);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("endpoints", endpoints);
+        if (options.report.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(options.report.toAbsolutePath().getParent());
+        }
+        objectMapper.writeValue(options.report.toFile(), report);
+        System.out.printf("Report written to %s.%n", options.report);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1e6;
+    }
+
+    private static final class EndpointStats {
+
+        private final String endpoint;
+        private final ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+
+        private EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(long latencyNanos, int status) {
+            samples.add(new long[]{latencyNanos, status});
+        }
+
+        long[] sortedLatencies() {
+            long[] latencies = samples.stream().mapToLong(sample -> sample[0]).toArray();
+            Arrays.sort(latencies);
+            return latencies;
+        }
+
+        long unsuccessful() {
+            return samples.stream().filter(sample -> sample[1] < 200 || sample[1] >= 300).count();
+        }
+
+        Map<String, Long> statusCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            samples.stream()
+                    .map(sample -> sample[1] < 0 ? "error" : Long.toString(sample[1]))
+                    .sorted()
+                    .forEach(status -> counts.merge(status, 1L, Long::sum));
+            return counts;
+        }
+    }
+
+    private record Options(Path file, String target, double speed, String username, String password,
+                           BigDecimal fund, Path report) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>(Map.of(
+                    "file", "requests.jsonl",
+                    "target", "http://localhost:8080",
+                    "speed", "1",
+                    "username", "testuser@email.com",
+                    "password", "password123",
+                    "fund", "1000000.00",
+                    "report", "target/replay-report.json"));
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--") || i + 1 >= args.length || !values.containsKey(args[i].substring(2))) {
+                    throw new IllegalArgumentException("Usage: TrafficReplay [--file requests.jsonl] [--target http://localhost:8080] "
+                            + "[--speed 1 (0 = as fast as possible)] [--username ...] [--password ...] [--fund 1000000.00] "
+                            + "[--report target/replay-report.json]");
+                }
+                values.put(args[i].substring(2), args[++i]);
+            }
+            double speed = Double.parseDouble(values.get("speed"));
+            if (speed < 0) {
+                throw new IllegalArgumentException("--speed must be 0 or positive");
+            }
+            return new Options(Path.of(values.get("file")), values.get("target").replaceAll("/+$", ""), speed,
+                    values.get("username"), values.get("password"), new BigDecimal(values.get("fund")),
+                    Path.of(values.get("report")));
+        }
+    }
+}
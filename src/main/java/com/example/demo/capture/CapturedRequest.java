@@ -0,0 +1,21 @@
+package com.example.demo.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.Nullable;
+
+import java.util.Map;
+
+// One line of a traffic capture. offsetMillis is measured from the first request of the capture, so a replay
+// can reproduce the original pacing.
+public record CapturedRequest(
+        long offsetMillis,
+        String method,
+        String path,
+        @Nullable
+        String query,
+        Map<String, String> headers,
+        @Nullable
+        JsonNode body,
+        int status,
+        long durationMicros
+) { }
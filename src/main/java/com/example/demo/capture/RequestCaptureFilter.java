@@ -0,0 +1,126 @@
+package com.example.demo.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Records /v1/** traffic for the replay tool. Only an allow-list of headers is kept, and credentials and personal
+// details in bodies are redacted before anything leaves the request thread.
+@Component
+@ConditionalOnProperty(name = "banking.capture.enabled", havingValue = "true")
+public class RequestCaptureFilter extends OncePerRequestFilter {
+
+    private static final List<String> CAPTURED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, "Idempotency-Key");
+    private static final String REDACTED = "***";
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> redactedFields;
+    private final int maxBodyBytes;
+    private final RequestCaptureWriter captureWriter;
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public RequestCaptureFilter(ObjectMapper objectMapper,
+                                RequestCaptureWriter captureWriter,
+                                @Value("${banking.capture.redacted-fields:password,username,email,name,phoneNumber,address}") Set<String> redactedFields,
+                                @Value("${banking.capture.max-body-bytes:65536}") int maxBodyBytes) {
+        this.objectMapper = objectMapper;
+        this.redactedFields = redactedFields.stream().map(field -> field.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        this.maxBodyBytes = maxBodyBytes;
+        this.captureWriter = captureWriter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/v1/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request, maxBodyBytes);
+        long startMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(cachingRequest, response);
+        } finally {
+            long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+            firstRequestMillis.compareAndSet(-1, startMillis);
+            CapturedRequest captured = new CapturedRequest(
+                    Math.max(0, startMillis - firstRequestMillis.get()),
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    request.getQueryString(),
+                    capturedHeaders(request),
+                    sanitizedBody(cachingRequest.getContentAsByteArray()),
+                    response.getStatus(),
+                    durationMicros);
+            captureWriter.submit(captured);
+        }
+    }
+
+    private Map<String, String> capturedHeaders(HttpServletRequest request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : CAPTURED_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+
+    @Nullable
+    private JsonNode sanitizedBody(byte[] content) {
+        if (content.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(content);
+            redact(body);
+            return body;
+        } catch (IOException exception) {
+            // Not JSON (or cut off at max-body-bytes): keep the fact there was a body, not its content.
+            return TextNode.valueOf(REDACTED);
+        }
+    }
+
+    private void redact(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (redactedFields.contains(field.getKey().toLowerCase(Locale.ROOT))) {
+                    field.setValue(TextNode.valueOf(REDACTED));
+                } else {
+                    redact(field.getValue());
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(this::redact);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Appends captured requests to the capture file, one JSON object per line, from a background thread so a slow
+// disk never holds up a request. When the queue is full the record is dropped and counted instead.
+@Component
+@ConditionalOnProperty(name = "banking.capture.enabled", havingValue = "true")
+public class RequestCaptureWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCaptureWriter.class);
+
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<CapturedRequest> pending;
+    private final BufferedWriter writer;
+    private final Thread writerThread;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public RequestCaptureWriter(ObjectMapper objectMapper,
+                                @Value("${banking.capture.path:requests.jsonl}") Path capturePath,
+                                @Value("${banking.capture.queue-capacity:10000}") int queueCapacity) throws IOException {
+        this.objectMapper = objectMapper;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        Path directory = capturePath.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.writer = Files.newBufferedWriter(capturePath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.writerThread = Thread.ofPlatform().name("request-capture-writer").daemon(true).start(this::drain);
+        logger.warn("Capturing /v1/** requests to {}.", capturePath.toAbsolutePath());
+    }
+
+    public void submit(CapturedRequest captured) {
+        if (!pending.offer(captured)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException exception) {
+            logger.error("Could not close the capture file: {}", exception.getMessage(), exception);
+        }
+        if (dropped.get() > 0) {
+            logger.warn("{} requests were not captured because the capture queue was full.", dropped.get());
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                CapturedRequest captured = pending.poll(1, TimeUnit.SECONDS);
+                if (captured == null) {
+                    continue;
+                }
+                write(captured);
+                CapturedRequest next;
+                while ((next = pending.poll()) != null) {
+                    write(next);
+                }
+                writer.flush();
+            }
+        } catch (InterruptedException exception) {
+            // Shutting down: write out whatever is still queued.
+        } catch (IOException exception) {
+            logger.error("Request capture stopped: {}", exception.getMessage(), exception);
+            return;
+        }
+        try {
+            CapturedRequest remaining;
+            while ((remaining = pending.poll()) != null) {
+                write(remaining);
+            }
+            writer.flush();
+        } catch (IOException exception) {
+            logger.error("Could not write captured requests on shutdown: {}", exception.getMessage(), exception);
+        }
+    }
+
+    private void write(CapturedRequest captured) throws IOException {
+        writer.write(objectMapper.writeValueAsString(captured));
+        writer.newLine();
+    }
+}
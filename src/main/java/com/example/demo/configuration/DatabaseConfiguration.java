@@ -0,0 +1,68 @@
+package com.example.demo.configuration;
+
+import com.example.demo.database.ConnectionBulkheadDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// The bulkhead is on whenever requests run on virtual threads (spring.threads.virtual.enabled), and can be forced
+// either way with banking.database.bulkhead.enabled.
+@Configuration
+@ConditionalOnExpression("${banking.database.bulkhead.enabled:${spring.threads.virtual.enabled:false}}")
+public class DatabaseConfiguration {
+
+    // Ordered, so it runs before the (unordered) timing wrapper and the bulkhead sits directly on the pool.
+    @Bean
+    public static BeanPostProcessor connectionBulkheadDataSourcePostProcessor(Environment environment) {
+        int permits = environment.getProperty("banking.database.bulkhead.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("banking.database.bulkhead.acquire-timeout", Duration.class,
+                Duration.ofSeconds(2));
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof ConnectionBulkheadDataSource)
+                        ? new ConnectionBulkheadDataSource(dataSource, permits, acquireTimeout)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionBulkheadDataSource bulkhead;
+            try {
+                bulkhead = dataSource.unwrap(ConnectionBulkheadDataSource.class);
+            } catch (SQLException exception) {
+                return;
+            }
+            Gauge.builder("banking.database.bulkhead.in_use", bulkhead, ConnectionBulkheadDataSource::getInUse)
+                    .description("Connection permits currently held")
+                    .register(registry);
+            Gauge.builder("banking.database.bulkhead.waiting", bulkhead, ConnectionBulkheadDataSource::getWaiting)
+                    .description("Callers waiting for a connection permit")
+                    .register(registry);
+            FunctionCounter.builder("banking.database.bulkhead.rejected", bulkhead, ConnectionBulkheadDataSource::getRejected)
+                    .description("Callers that gave up waiting for a connection permit")
+                    .register(registry);
+        };
+    }
+
+    private interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+        @Override
+        default int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -1,45 +1,28 @@
 package com.example.demo.configuration;
 
-import com.nimbusds.jose.jwk.RSAKey;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.demo.security.JwtKeyStore;
+import com.example.demo.security.ReloadingJwtKeySet;
+import com.nimbusds.jose.JWSAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.NoSuchAlgorithmException;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.util.UUID;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Configuration
 public class KeyConfiguration {
 
-    private static final Logger logger = LoggerFactory.getLogger(KeyConfiguration.class);
-
-    @Bean
-    public KeyPair rsaKeyPair() {
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048); // 2048 bits is a common and secure key size
-            KeyPair keyPair = keyPairGenerator.generateKeyPair();
-            logger.info("Dynamically generated RSA KeyPair.");
-            logger.debug("Public Key Algorithm: {}", keyPair.getPublic().getAlgorithm());
-            logger.debug("Private Key Algorithm: {}", keyPair.getPrivate().getAlgorithm());
-            return keyPair;
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Failed to generate RSA KeyPair", e);
-        }
-    }
-
+    // Every key that signs or still verifies tokens, private parts included; the first one signs. An instance may
+    // sign with a replaced key for up to one reload interval, so replaced keys are kept that much longer than a token.
     @Bean
-    public RSAKey rsaKey(KeyPair keyPair) {
-        logger.info("Creating RSAKey from generated KeyPair.");
-        return new RSAKey
-                .Builder((RSAPublicKey) keyPair.getPublic()) // Set the public key
-                .privateKey((RSAPrivateKey) keyPair.getPrivate()) // Set the private key
-                .keyID(UUID.randomUUID().toString()) // Assign a unique Key ID
-                .build();
+    public ReloadingJwtKeySet jwtKeySet(@Value("${banking.security.jwt.algorithm:ES256}") String algorithm,
+                                        @Value("${banking.security.jwt.key-store:jwt-keys.json}") Path keyStore,
+                                        @Value("${banking.security.jwt.rotation-period:30d}") Duration rotationPeriod,
+                                        @Value("${banking.security.jwt.reload-interval:5m}") Duration reloadInterval,
+                                        @Value("${jwt.expiration.ms}") long tokenLifetimeMs) throws IOException {
+        Duration retention = Duration.ofMillis(tokenLifetimeMs).plus(reloadInterval);
+        return new ReloadingJwtKeySet(new JwtKeyStore(keyStore, JWSAlgorithm.parse(algorithm), rotationPeriod, retention));
     }
 }
@@ -1,15 +1,17 @@
 package com.example.demo.configuration;
 
-import static org.springframework.security.config.Customizer.withDefaults;
-
+import com.example.demo.security.AuthenticatedUserJwtConverter;
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.CachingJwtDecoder;
+import com.example.demo.security.JwkSetJwtProcessor;
+import com.example.demo.security.ReloadingJwtKeySet;
 import com.example.demo.service.CustomUserDetailsService;
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,12 +21,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -33,9 +32,12 @@ public class SecurityConfiguration {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfiguration.class);
 
     private final CustomUserDetailsService customUserDetailsService;
+    private final AuthenticatedUserJwtConverter authenticatedUserJwtConverter;
 
-    public SecurityConfiguration(CustomUserDetailsService customUserDetailsService) {
+    public SecurityConfiguration(CustomUserDetailsService customUserDetailsService,
+                                 AuthenticatedUserJwtConverter authenticatedUserJwtConverter) {
         this.customUserDetailsService = customUserDetailsService;
+        this.authenticatedUserJwtConverter = authenticatedUserJwtConverter;
     }
 
     @Bean
@@ -50,12 +52,14 @@ public class SecurityConfiguration {
                                     "/v1/auth/login",
                                     "/openapi/**",
                                     "/swagger-ui/**",
-                                    "/openapi.yaml"
+                                    "/openapi.yaml",
+                                    "/actuator/health/**",
+                                    "/actuator/prometheus"
                             ).permitAll()
                             .anyRequest().authenticated();
                 })
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .oauth2ResourceServer((oauth2) -> oauth2.jwt(withDefaults()))
+                .oauth2ResourceServer((oauth2) -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(authenticatedUserJwtConverter)))
                 .headers(headersConfigurer -> headersConfigurer
                 .frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin));
 
@@ -64,26 +68,30 @@ public class SecurityConfiguration {
 
 
 
-    // Provides a BCryptPasswordEncoder bean for password hashing.
+    // BCrypt on its own bounded pool, so sign-in bursts cannot take over the request threads.
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${banking.security.bcrypt.strength:10}") int strength,
+                                           @Value("${banking.security.password-hashing.threads:2}") int threads,
+                                           @Value("${banking.security.password-hashing.queue-capacity:32}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, meterRegistry);
     }
 
+    // Public keys only: the signing key's private part stays with the encoder.
     @Bean
-    public JWKSource<SecurityContext> jwkSource(RSAKey rsaKey) {
-        var jwkSet = new JWKSet(rsaKey);
-        return (jwkSelector, context) ->  jwkSelector.select(jwkSet);
+    public JWKSource<SecurityContext> jwkSource(ReloadingJwtKeySet jwtKeySet) {
+        return jwtKeySet::select;
     }
 
     @Bean
-    public JwtDecoder jwtDecoder(RSAKey rsaKey) throws JOSEException {
-        return NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+    public CachingJwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                        @Value("${banking.security.jwt-cache.maximum-size:10000}") long maximumSize) {
+        return new CachingJwtDecoder(new NimbusJwtDecoder(new JwkSetJwtProcessor(jwkSource)), maximumSize);
     }
 
     @Bean
-    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
-        return new NimbusJwtEncoder(jwkSource);
+    public JwtEncoder jwtEncoder(ReloadingJwtKeySet jwtKeySet) {
+        return jwtKeySet::encode;
     }
 
     // Configures the AuthenticationManager, which handles authentication requests.
@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.accounts.AccountBalanceResponseDto;
 import com.example.demo.dto.accounts.AccountResponseDto;
 import com.example.demo.dto.accounts.CreateAccountRequestDto;
 import com.example.demo.dto.accounts.ListAccountsResponseDto;
@@ -96,11 +97,37 @@ public class AccountController {
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/{accountNumber}")
     public ResponseEntity<AccountResponseDto> fetchAccountByAccountNumber(@PathVariable String accountNumber) {
-        logger.info("Received request to fetch account by number: {}", accountNumber);
+        logger.atInfo().addKeyValue("accountNumber", accountNumber).log("Received request to fetch account");
         AccountResponseDto account = accountService.findAccountByAccountNumber(accountNumber);
         return ResponseEntity.ok(account);
     }
 
+    @Operation(summary = "Fetch the balance of an account at a point in time.",
+            description = "Fetch the balance of an account as it was at the given ISO-8601 date-time, or now when asOf is omitted.",
+            operationId = "fetchAccountBalanceAsOf")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The balance of the bank account",
+                    content = @Content(schema = @Schema(implementation = AccountBalanceResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "The request didn't supply all the necessary data",
+                    content = @Content(schema = @Schema(implementation = BadRequestErrorResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "403", description = "The user is not allowed to access the bank account details",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Bank account was not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{accountNumber}/balance")
+    public ResponseEntity<AccountBalanceResponseDto> fetchAccountBalanceAsOf(@PathVariable String accountNumber,
+                                                                             @RequestParam(required = false) String asOf) {
+        logger.info("Received request to fetch balance of account {} as of {}", accountNumber, asOf);
+        AccountBalanceResponseDto balance = accountService.findBalanceAsOf(accountNumber, asOf);
+        return ResponseEntity.ok(balance);
+    }
+
     @Operation(summary = "Update account by account number.",
             description = "Update account by account number.",
             operationId = "updateAccountByAccountNumber")
@@ -4,6 +4,7 @@ import com.example.demo.dto.AuthResponseDto;
 import com.example.demo.dto.LoginRequestDto;
 import com.example.demo.dto.errors.BadRequestErrorResponseDto;
 import com.example.demo.dto.errors.ErrorResponseDto;
+import com.example.demo.exception.PasswordHashingUnavailableException;
 import com.example.demo.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -54,6 +55,8 @@ public class AuthController {
                     content = @Content(schema = @Schema(implementation = BadRequestErrorResponseDto.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid credentials",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "503", description = "Too many sign-ins in progress, retry shortly",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
     })
@@ -74,6 +77,8 @@ public class AuthController {
             logger.warn("Authentication failed for user {}: {}", request.username(), exception.getMessage());
             ErrorResponseDto errorResponse = new ErrorResponseDto("Invalid email or password.");
             return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        } catch (PasswordHashingUnavailableException exception) {
+            throw exception;
         } catch (Exception exception) {
             logger.error("An unexpected error occurred during authentication for user {}: {}", request.username(), exception.getMessage(), exception);
             throw new RuntimeException("Authentication failed due to an internal error.", exception);
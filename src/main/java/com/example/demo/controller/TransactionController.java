@@ -2,9 +2,13 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.errors.BadRequestErrorResponseDto;
 import com.example.demo.dto.errors.ErrorResponseDto;
+import com.example.demo.dto.transactions.CreateTransactionBatchRequestDto;
 import com.example.demo.dto.transactions.CreateTransactionRequestDto;
 import com.example.demo.dto.transactions.ListTransactionsResponseDto;
+import com.example.demo.dto.transactions.MonthlySummaryResponseDto;
+import com.example.demo.dto.transactions.TransactionBatchResponseDto;
 import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.service.IdempotencyService;
 import com.example.demo.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -28,13 +32,16 @@ public class TransactionController {
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @Operation(summary = "Create a transaction",
-            description = "Create a transaction",
+            description = "Create a transaction. Send an Idempotency-Key header to make retries safe: a repeated key " +
+                    "returns the original transaction instead of creating a new one.",
             operationId = "createTransaction")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Transaction has been created successfully",
@@ -47,7 +54,7 @@ public class TransactionController {
                     content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "Bank account was not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
-            @ApiResponse(responseCode = "422", description = "Insufficient funds to process transaction",
+            @ApiResponse(responseCode = "422", description = "Insufficient funds to process transaction, or the Idempotency-Key was already used with a different request",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
                     content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
@@ -56,15 +63,51 @@ public class TransactionController {
     @PostMapping
     public ResponseEntity<TransactionResponseDto> createTransaction(
             @PathVariable String accountNumber,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateTransactionRequestDto request) {
-        logger.info("Received request to create transaction for account {}. Type: {}, Amount: {}",
-                accountNumber, request.type(), request.amount());
-        TransactionResponseDto createdTransaction = transactionService.createTransaction(accountNumber, request);
+        logger.atInfo()
+                .addKeyValue("accountNumber", accountNumber)
+                .addKeyValue("type", request.type())
+                .addKeyValue("amount", request.amount())
+                .log("Received request to create transaction");
+        TransactionResponseDto createdTransaction = idempotencyKey == null
+                ? transactionService.createTransaction(accountNumber, request)
+                : idempotencyService.createTransactionOnce(idempotencyKey, accountNumber, request);
         return new ResponseEntity<>(createdTransaction, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Create a batch of transactions",
+            description = "Apply up to 500 transactions to the account in order, in one database transaction. " +
+                    "Items that cannot be applied are reported individually and do not abort the batch.",
+            operationId = "createTransactionBatch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The batch has been processed, see the per-item results",
+                    content = @Content(schema = @Schema(implementation = TransactionBatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid details supplied",
+                    content = @Content(schema = @Schema(implementation = BadRequestErrorResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "403", description = "The user is not allowed to access the bank account details",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Bank account was not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponseDto> createTransactionBatch(
+            @PathVariable String accountNumber,
+            @Valid @RequestBody CreateTransactionBatchRequestDto request) {
+        logger.info("Received request to create a batch of {} transactions for account {}.",
+                request.transactions().size(), accountNumber);
+        TransactionBatchResponseDto batchResult = transactionService.createTransactions(accountNumber, request);
+        return ResponseEntity.ok(batchResult);
+    }
+
     @Operation(summary = "List transactions",
-            description = "List transactions",
+            description = "List transactions, oldest first, one page at a time. Pass the returned nextPageToken " +
+                    "as pageToken to fetch the following page; it is absent on the last page.",
             operationId = "listAccountTransaction")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The list of transaction details",
@@ -83,12 +126,44 @@ public class TransactionController {
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping
     public ResponseEntity<ListTransactionsResponseDto> listTransactions(
-            @PathVariable String accountNumber) {
-        logger.info("Received request to list transactions for account: {}", accountNumber);
-        ListTransactionsResponseDto transactionList = transactionService.getTransactionsByAccountNumber(accountNumber);
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String pageToken) {
+        logger.atInfo().addKeyValue("accountNumber", accountNumber).log("Received request to list transactions");
+        ListTransactionsResponseDto transactionList = transactionService.getTransactionsByAccountNumber(accountNumber, pageSize, pageToken);
         return ResponseEntity.ok(transactionList);
     }
 
+    @Operation(summary = "Summarise transactions by month",
+            description = "Count and total the deposits and withdrawals in each month from the from month to the to month " +
+                    "(ISO-8601, e.g. 2025-01), inclusive. Defaults to the twelve months up to and including the current one. " +
+                    "Months without transactions are left out.",
+            operationId = "summariseAccountTransactionsByMonth")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The monthly totals",
+                    content = @Content(schema = @Schema(implementation = MonthlySummaryResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "The request didn't supply all the necessary data",
+                    content = @Content(schema = @Schema(implementation = BadRequestErrorResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "403", description = "The user is not allowed to access the transactions",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Bank account was not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/monthly-summary")
+    public ResponseEntity<MonthlySummaryResponseDto> summariseTransactionsByMonth(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        logger.atInfo().addKeyValue("accountNumber", accountNumber).log("Received request to summarise transactions by month");
+        MonthlySummaryResponseDto summary = transactionService.getMonthlySummary(accountNumber, from, to);
+        return ResponseEntity.ok(summary);
+    }
+
     @Operation(summary = "Fetch transaction by ID.",
             description = "Fetch transaction by ID.",
             operationId = "fetchAccountTransactionByID")
@@ -111,7 +186,10 @@ public class TransactionController {
     public ResponseEntity<TransactionResponseDto> fetchTransactionById(
             @PathVariable String accountNumber,
             @PathVariable String transactionId) {
-        logger.info("Received request to fetch transaction {} for account {}.", transactionId, accountNumber);
+        logger.atInfo()
+                .addKeyValue("accountNumber", accountNumber)
+                .addKeyValue("transactionId", transactionId)
+                .log("Received request to fetch transaction");
         TransactionResponseDto transaction = transactionService.getTransactionById(accountNumber, transactionId);
         return ResponseEntity.ok(transaction);
     }
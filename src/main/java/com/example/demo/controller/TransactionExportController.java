@@ -0,0 +1,73 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.errors.BadRequestErrorResponseDto;
+import com.example.demo.dto.errors.ErrorResponseDto;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.service.TransactionExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/v1/accounts/{accountNumber}/transactions/export")
+@Tag(name = "transaction", description = "Manage transactions on a bank account")
+public class TransactionExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportController.class);
+
+    private final TransactionExportService transactionExportService;
+
+    public TransactionExportController(TransactionExportService transactionExportService) {
+        this.transactionExportService = transactionExportService;
+    }
+
+    @Operation(summary = "Export the full transaction history",
+            description = "Stream every transaction of the account, oldest first, as NDJSON or CSV. " +
+                    "Set gzip=true to receive the body gzip-encoded.",
+            operationId = "exportAccountTransactions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The transaction history"),
+            @ApiResponse(responseCode = "400", description = "The request didn't supply all the necessary data",
+                    content = @Content(schema = @Schema(implementation = BadRequestErrorResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "403", description = "The user is not allowed to access the transactions",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Bank account was not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable String accountNumber,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        logger.info("Received request to export transactions for account {}. Format: {}, gzip: {}", accountNumber, format, gzip);
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        StreamingResponseBody body = transactionExportService.exportTransactions(accountNumber, exportFormat, gzip);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("transactions-" + accountNumber + "." + exportFormat.getFileExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
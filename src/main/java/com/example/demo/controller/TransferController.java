@@ -0,0 +1,68 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.errors.BadRequestErrorResponseDto;
+import com.example.demo.dto.errors.ErrorResponseDto;
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
+import com.example.demo.dto.transactions.TransferResponseDto;
+import com.example.demo.service.TransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/accounts/{accountNumber}/transfers")
+@Tag(name = "transfer", description = "Move money between bank accounts")
+public class TransferController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferController.class);
+
+    private final TransactionService transactionService;
+
+    public TransferController(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @Operation(summary = "Create a transfer",
+            description = "Move money from the bank account to another one in a single step. The withdrawal and " +
+                    "the matching deposit are recorded together, with the same transferReference, or not at all.",
+            operationId = "createTransfer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Transfer has been created successfully",
+                    content = @Content(schema = @Schema(implementation = TransferResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid details supplied",
+                    content = @Content(schema = @Schema(implementation = BadRequestErrorResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "403", description = "The user is not allowed to access the bank account details",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Bank account or destination bank account was not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "422", description = "Insufficient funds to process transfer",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "500", description = "An unexpected error occurred",
+                    content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping
+    public ResponseEntity<TransferResponseDto> createTransfer(
+            @PathVariable String accountNumber,
+            @Valid @RequestBody CreateTransferRequestDto request) {
+        logger.atInfo()
+                .addKeyValue("sourceAccountNumber", accountNumber)
+                .addKeyValue("destinationAccountNumber", request.destinationAccountNumber())
+                .addKeyValue("amount", request.amount())
+                .log("Received request to create transfer");
+        TransferResponseDto transfer = transactionService.createTransfer(accountNumber, request);
+        return new ResponseEntity<>(transfer, HttpStatus.CREATED);
+    }
+}
@@ -4,12 +4,17 @@ import com.example.demo.dto.errors.BadRequestErrorResponseDto;
 import com.example.demo.dto.errors.ErrorDetailDto;
 import com.example.demo.dto.errors.ErrorResponseDto;
 import com.example.demo.exception.*;
+import com.example.demo.metrics.BankingMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +29,12 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final BankingMetrics bankingMetrics;
+
+    public GlobalExceptionHandler(BankingMetrics bankingMetrics) {
+        this.bankingMetrics = bankingMetrics;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleResourceNotFoundException(ResourceNotFoundException exception, WebRequest request) {
         logger.error("ResourceNotFoundException: {}", exception.getMessage(), exception);
@@ -66,9 +77,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException exception, WebRequest request) {
+        logger.error("IdempotencyKeyReusedException: {}", exception.getMessage(), exception);
+        ErrorResponseDto errorResponse = new ErrorResponseDto(exception.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(LedgerUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleLedgerUnavailableException(LedgerUnavailableException exception, WebRequest request) {
+        logger.error("LedgerUnavailableException: {}", exception.getMessage(), exception);
+        ErrorResponseDto errorResponse = new ErrorResponseDto(exception.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(AccountOwnershipException.class)
     public ResponseEntity<ErrorResponseDto> handleAccountOwnershipException(AccountOwnershipException exception, WebRequest request) {
         logger.error("AccountOwnershipException: {}", exception.getMessage(), exception);
+        bankingMetrics.accessDenied("account");
         ErrorResponseDto errorResponse = new ErrorResponseDto(exception.getMessage());
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
@@ -84,6 +110,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponseDto> handleAccessDeniedException(AccessDeniedException exception, WebRequest request) {
         logger.error("AccessDeniedException: {}", exception.getMessage(), exception);
+        bankingMetrics.accessDenied("user");
         ErrorResponseDto errorResponse = new ErrorResponseDto(exception.getMessage());
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
@@ -124,4 +151,27 @@ public class GlobalExceptionHandler {
         ErrorResponseDto errorDetails = new ErrorResponseDto("Data integrity violation");
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception, WebRequest request) {
+        logger.error("OptimisticLockingFailureException: {}", exception.getMessage(), exception);
+        ErrorResponseDto errorDetails = new ErrorResponseDto("The resource was modified concurrently. Please retry the request.");
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException exception, WebRequest request) {
+        logger.warn("PasswordHashingUnavailableException: {}", exception.getMessage());
+        ErrorResponseDto errorDetails = new ErrorResponseDto(exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetails);
+    }
+
+    // No database connection (or bulkhead permit) became free in time: the service is overloaded, not broken. Only
+    // the message is logged; banking.database.bulkhead.rejected counts how often it happens.
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ErrorResponseDto> handleDatabaseUnavailableException(Exception exception, WebRequest request) {
+        logger.warn("Database connection unavailable: {}", exception.getMessage());
+        ErrorResponseDto errorDetails = new ErrorResponseDto("The service is busy. Please retry the request.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetails);
+    }
+}
@@ -0,0 +1,6 @@
+@NonNullApi
+@NonNullFields
+package com.example.demo.database;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.demo.dto.accounts;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record AccountBalanceResponseDto(
+        String accountNumber,
+        BigDecimal balance,
+        String currency,
+        LocalDateTime asOf
+) {}
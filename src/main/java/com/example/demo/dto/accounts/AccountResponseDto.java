@@ -2,6 +2,7 @@ package com.example.demo.dto.accounts;
 
 import com.example.demo.enums.AccountType;
 import com.example.demo.model.Account;
+import com.example.demo.model.AccountSnapshot;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -29,4 +30,17 @@ public record AccountResponseDto(
                 account.getUpdatedTimestamp()
         );
     }
+
+    public static AccountResponseDto fromSnapshot(AccountSnapshot account) {
+        return new AccountResponseDto(
+                account.accountNumber(),
+                account.sortCode(),
+                account.name(),
+                account.accountType(),
+                account.balance(),
+                account.currency(),
+                account.createdTimestamp(),
+                account.updatedTimestamp()
+        );
+    }
 }
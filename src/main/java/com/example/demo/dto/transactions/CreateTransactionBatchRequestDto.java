@@ -0,0 +1,14 @@
+package com.example.demo.dto.transactions;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CreateTransactionBatchRequestDto(
+        @NotEmpty(message = "Transactions cannot be empty")
+        @Size(max = 500, message = "A batch cannot contain more than 500 transactions")
+        List<@NotNull(message = "Transactions cannot contain null items") @Valid CreateTransactionRequestDto> transactions
+) {}
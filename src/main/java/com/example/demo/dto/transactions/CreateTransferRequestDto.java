@@ -0,0 +1,24 @@
+package com.example.demo.dto.transactions;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+public record CreateTransferRequestDto(
+        @NotBlank(message = "Destination account number cannot be empty")
+        @Pattern(regexp = "^\\d{8}$", message = "Destination account number must be 8 digits")
+        String destinationAccountNumber,
+
+        @NotNull(message = "Amount cannot be null")
+        @DecimalMin(value = "0.01", message = "Amount must be positive")
+        @Digits(integer = 10, fraction = 2, message = "Amount must have at most 2 decimal places")
+        BigDecimal amount,
+
+        @NotBlank(message = "Currency cannot be empty")
+        String currency,
+
+        @Size(max = 255, message = "Reference cannot exceed 255 characters")
+        @Nullable
+        String reference
+) {}
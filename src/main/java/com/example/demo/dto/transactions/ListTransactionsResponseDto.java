@@ -1,7 +1,11 @@
 package com.example.demo.dto.transactions;
 
+import jakarta.annotation.Nullable;
+
 import java.util.List;
 
 public record ListTransactionsResponseDto(
-        List<TransactionResponseDto> transactions
+        List<TransactionResponseDto> transactions,
+        @Nullable
+        String nextPageToken
 ) { }
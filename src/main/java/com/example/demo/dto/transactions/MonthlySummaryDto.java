@@ -0,0 +1,25 @@
+package com.example.demo.dto.transactions;
+
+import com.example.demo.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record MonthlySummaryDto(
+        YearMonth month,
+        long depositCount,
+        BigDecimal depositTotal,
+        long withdrawalCount,
+        BigDecimal withdrawalTotal
+) {
+
+    public static MonthlySummaryDto empty(YearMonth month) {
+        return new MonthlySummaryDto(month, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO);
+    }
+
+    public MonthlySummaryDto with(TransactionType type, long count, BigDecimal total) {
+        return type == TransactionType.DEPOSIT
+                ? new MonthlySummaryDto(month, count, total, withdrawalCount, withdrawalTotal)
+                : new MonthlySummaryDto(month, depositCount, depositTotal, count, total);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto.transactions;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// Months between from and to with no transactions are left out.
+public record MonthlySummaryResponseDto(
+        String accountNumber,
+        String currency,
+        YearMonth from,
+        YearMonth to,
+        List<MonthlySummaryDto> months
+) { }
@@ -0,0 +1,22 @@
+package com.example.demo.dto.transactions;
+
+import com.example.demo.enums.BatchItemStatus;
+import jakarta.annotation.Nullable;
+
+public record TransactionBatchItemResultDto(
+        int index,
+        BatchItemStatus status,
+        @Nullable
+        TransactionResponseDto transaction,
+        @Nullable
+        String error
+) {
+
+    public static TransactionBatchItemResultDto created(int index, TransactionResponseDto transaction) {
+        return new TransactionBatchItemResultDto(index, BatchItemStatus.CREATED, transaction, null);
+    }
+
+    public static TransactionBatchItemResultDto rejected(int index, String error) {
+        return new TransactionBatchItemResultDto(index, BatchItemStatus.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto.transactions;
+
+import java.util.List;
+
+public record TransactionBatchResponseDto(
+        int created,
+        int rejected,
+        List<TransactionBatchItemResultDto> results
+) {}
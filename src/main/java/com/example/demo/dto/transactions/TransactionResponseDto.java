@@ -2,6 +2,7 @@ package com.example.demo.dto.transactions;
 
 import com.example.demo.enums.TransactionType;
 import com.example.demo.model.Transaction;
+import jakarta.annotation.Nullable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,7 +14,9 @@ public record TransactionResponseDto(
         TransactionType type,
         String reference,
         Long userId,
-        LocalDateTime createdTimestamp
+        LocalDateTime createdTimestamp,
+        @Nullable
+        String transferReference
 ) {
 
     public static TransactionResponseDto fromEntity(Transaction transaction, Long userId) {
@@ -24,7 +27,8 @@ public record TransactionResponseDto(
                 transaction.getTransactionType(),
                 transaction.getDescription(),
                 userId,
-                transaction.getTimestamp()
+                transaction.getTimestamp(),
+                transaction.getTransferReference()
         );
     }
 }
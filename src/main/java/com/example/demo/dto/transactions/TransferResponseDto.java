@@ -0,0 +1,10 @@
+package com.example.demo.dto.transactions;
+
+// The transaction is the withdrawal from the caller's account. The matching deposit on the destination account
+// carries the same transferReference.
+public record TransferResponseDto(
+        String transferReference,
+        String sourceAccountNumber,
+        String destinationAccountNumber,
+        TransactionResponseDto transaction
+) { }
@@ -0,0 +1,34 @@
+package com.example.demo.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    @JsonCreator
+    public static ExportFormat fromString(String text) {
+        for (ExportFormat format : ExportFormat.values()) {
+            if (format.name().equalsIgnoreCase(text)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Invalid ExportFormat: " + text + ". Must be 'ndjson' or 'csv'.");
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.ledger;
+
+import com.example.demo.model.Account;
+import com.example.demo.model.LedgerJournalPosition;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.LedgerJournalPositionRepository;
+import com.example.demo.service.BalanceCheckpointService;
+import com.example.demo.service.MonthlyRollupService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Brings the database up to date with journal entries, shared by all shards. The journal already decided every
+// entry, so the transaction rows are inserted with plain JDBC batches under the ids they were journalled with.
+// Balances still move with the conditional updates: an account that is gone or would be overdrawn fails the whole
+// apply, which leaves the entries in the journal to be retried rather than dropping acknowledged transactions.
+class JournalApplier {
+    // Must match the allocationSize of account_transactions_seq on Transaction.
+    private static final int TRANSACTION_ID_BLOCK = 50;
+    private static final String INSERT_TRANSACTION = "INSERT INTO account_transactions "
+            + "(id, account_id, amount, currency, transaction_type, description, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final LedgerJournalPositionRepository positionRepository;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final MonthlyRollupService monthlyRollupService;
+    private long nextTransactionId;
+    private long lastTransactionId = -1;
+
+    JournalApplier(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, AccountRepository accountRepository,
+                   LedgerJournalPositionRepository positionRepository, BalanceCheckpointService balanceCheckpointService,
+                   MonthlyRollupService monthlyRollupService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.accountRepository = accountRepository;
+        this.positionRepository = positionRepository;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.monthlyRollupService = monthlyRollupService;
+    }
+
+    // Ids are taken in blocks from the sequence Hibernate uses for transactions, read the way its pooled optimizer
+    // reads it (a value v covers v - 49 up to v), so journalled and directly created transactions never collide.
+    synchronized long nextTransactionId() {
+        if (nextTransactionId > lastTransactionId) {
+            long value = nextSequenceValue();
+            if (value < TRANSACTION_ID_BLOCK) {
+                // The sequence's initial value, which Hibernate reads as the start of a block rather than its end.
+                value = nextSequenceValue();
+            }
+            nextTransactionId = value - TRANSACTION_ID_BLOCK + 1;
+            lastTransactionId = value;
+        }
+        return nextTransactionId++;
+    }
+
+    long appliedSequence(int shard) {
+        return positionRepository.findById(shard).map(LedgerJournalPosition::getAppliedSequence).orElse(0L);
+    }
+
+    // Applies the entries, which must be in sequence order, in one database transaction together with the shard's
+    // new position. Entries at or below the recorded position are skipped, so a replay never applies one twice.
+    void apply(int shard, List<JournalEntry> entries) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long applied = appliedSequence(shard);
+            List<JournalEntry> pending = entries.stream().filter(entry -> entry.sequence() > applied).toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, BigDecimal> netAmounts = new LinkedHashMap<>();
+            pending.forEach(entry -> netAmounts.merge(entry.accountId(), entry.signedAmount(), BigDecimal::add));
+            netAmounts.forEach((accountId, netAmount) -> {
+                int updated = netAmount.signum() >= 0
+                        ? accountRepository.creditBalance(accountId, netAmount, now)
+                        : accountRepository.debitBalance(accountId, netAmount.negate(), now);
+                if (updated == 0) {
+                    throw new IllegalStateException("Ledger journal entries for account " + accountId
+                            + " cannot be applied: the account is missing, deleted or would be overdrawn.");
+                }
+            });
+
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, pending, pending.size(), (statement, entry) -> {
+                statement.setLong(1, entry.transactionId());
+                statement.setLong(2, entry.accountId());
+                statement.setBigDecimal(3, entry.amount());
+                statement.setString(4, entry.currency());
+                statement.setString(5, entry.type().name());
+                statement.setString(6, entry.reference());
+                statement.setTimestamp(7, Timestamp.valueOf(entry.timestamp()));
+            });
+
+            Map<Long, JournalEntry> latestByAccount = new HashMap<>();
+            pending.forEach(entry -> latestByAccount.put(entry.accountId(), entry));
+            latestByAccount.forEach((accountId, entry) -> {
+                Account account = accountRepository.getReferenceById(accountId);
+                balanceCheckpointService.recordTransaction(account, entry.toTransaction());
+            });
+
+            pending.stream()
+                    .collect(Collectors.groupingBy(JournalEntry::accountId, Collectors.mapping(JournalEntry::toTransaction, Collectors.toList())))
+                    .forEach(monthlyRollupService::recordTransactions);
+
+            positionRepository.save(new LedgerJournalPosition(shard, pending.get(pending.size() - 1).sequence()));
+        });
+    }
+
+    private long nextSequenceValue() {
+        Long value = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR account_transactions_seq", Long.class);
+        if (value == null) {
+            throw new IllegalStateException("account_transactions_seq returned no value");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.ledger;
+
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One accepted deposit or withdrawal as recorded in a shard's journal. The transaction id and timestamp are
+// fixed when the entry is written, so the row later inserted from it is the one the caller was shown.
+record JournalEntry(
+        long sequence,
+        long transactionId,
+        long accountId,
+        TransactionType type,
+        BigDecimal amount,
+        String currency,
+        String reference,
+        LocalDateTime timestamp
+) {
+
+    BigDecimal signedAmount() {
+        return type == TransactionType.DEPOSIT ? amount : amount.negate();
+    }
+
+    // Not attached to a persistence context: only the columns are set.
+    Transaction toTransaction() {
+        return new Transaction(transactionId, null, amount, currency, type, reference, timestamp, null);
+    }
+}
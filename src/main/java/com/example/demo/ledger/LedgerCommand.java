@@ -0,0 +1,40 @@
+package com.example.demo.ledger;
+
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+// One command waiting on a shard. A TRANSACTION is a deposit or withdrawal, and its result completes once the batch
+// holding it has committed. HOLD and CLOSE are only used with the journal, for writes made outside the shard: a HOLD
+// sets money aside for a debit about to be written directly to the database, and a CLOSE stops the shard accepting
+// anything more for an account about to be deleted. Both complete with no transaction and last until released.
+record LedgerCommand(
+        Kind kind,
+        AccountSnapshot account,
+        TransactionType type,
+        BigDecimal amount,
+        String reference,
+        CompletableFuture<Transaction> result
+) {
+
+    enum Kind { TRANSACTION, HOLD, CLOSE }
+
+    static LedgerCommand transaction(AccountSnapshot account, TransactionType type, BigDecimal amount, String reference) {
+        return new LedgerCommand(Kind.TRANSACTION, account, type, amount, reference, new CompletableFuture<>());
+    }
+
+    static LedgerCommand hold(AccountSnapshot account, BigDecimal amount) {
+        return new LedgerCommand(Kind.HOLD, account, TransactionType.WITHDRAWAL, amount, "", new CompletableFuture<>());
+    }
+
+    static LedgerCommand close(AccountSnapshot account) {
+        return new LedgerCommand(Kind.CLOSE, account, TransactionType.WITHDRAWAL, BigDecimal.ZERO, "", new CompletableFuture<>());
+    }
+
+    BigDecimal signedAmount() {
+        return type == TransactionType.DEPOSIT ? amount : amount.negate();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.ledger;
+
+import com.example.demo.enums.TransactionType;
+import com.example.demo.exception.LedgerUnavailableException;
+import com.example.demo.metrics.BankingMetrics;
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.LedgerJournalPositionRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.BalanceCheckpointService;
+import com.example.demo.service.MonthlyRollupService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+// Optional write path for single-account deposits and withdrawals. Accounts are spread by account number over a
+// fixed set of shards, each a single writer thread with a bounded queue, so commands for one account are applied
+// in order without row-lock contention and written to the database in batches. A caller is answered only after
+// the batch holding its transaction has committed.
+//
+// With banking.ledger.journal.enabled each shard also keeps a memory-mapped journal, which becomes the durable
+// record: a caller is answered as soon as its entry is forced to the journal, and the database, acting as the
+// snapshot, is brought up to date behind it. At startup every shard replays what the database has not applied.
+// Reads of balances and transaction lists may briefly lag the acknowledged writes in this mode, and writes made
+// outside the shards take a hold or close on them first (see hold and close).
+@Component
+@ConditionalOnProperty(name = "banking.ledger.enabled", havingValue = "true")
+public class LedgerEngine implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final List<LedgerShard> shards;
+    private final Duration acknowledgeTimeout;
+    private final boolean journalEnabled;
+    private volatile boolean running;
+
+    public LedgerEngine(AccountRepository accountRepository,
+                        TransactionRepository transactionRepository,
+                        BalanceCheckpointService balanceCheckpointService,
+                        MonthlyRollupService monthlyRollupService,
+                        AccountCache accountCache,
+                        BankingMetrics bankingMetrics,
+                        PlatformTransactionManager transactionManager,
+                        JdbcTemplate jdbcTemplate,
+                        LedgerJournalPositionRepository journalPositionRepository,
+                        @Value("${banking.ledger.shards:4}") int shardCount,
+                        @Value("${banking.ledger.queue-capacity:1024}") int queueCapacity,
+                        @Value("${banking.ledger.batch-size:64}") int batchSize,
+                        @Value("${banking.ledger.acknowledge-timeout:5s}") Duration acknowledgeTimeout,
+                        @Value("${banking.ledger.cached-balances:10000}") int cachedBalances,
+                        @Value("${banking.ledger.journal.enabled:false}") boolean journalEnabled,
+                        @Value("${banking.ledger.journal.directory:ledger-journal}") Path journalDirectory,
+                        @Value("${banking.ledger.journal.segment-size:64MB}") DataSize journalSegmentSize) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        JournalApplier journalApplier = journalEnabled
+                ? new JournalApplier(jdbcTemplate, transactionTemplate, accountRepository, journalPositionRepository, balanceCheckpointService,
+                        monthlyRollupService)
+                : null;
+        this.shards = IntStream.range(0, shardCount)
+                .mapToObj(index -> new LedgerShard(index, queueCapacity, batchSize, accountRepository, transactionRepository,
+                        balanceCheckpointService, monthlyRollupService, accountCache, bankingMetrics, transactionTemplate,
+                        cachedBalances, journalEnabled ? new LedgerJournal(journalDirectory.resolve("shard-" + index), (int) journalSegmentSize.toBytes()) : null,
+                        journalApplier))
+                .toList();
+        this.acknowledgeTimeout = acknowledgeTimeout;
+        this.journalEnabled = journalEnabled;
+    }
+
+    public Transaction apply(AccountSnapshot account, TransactionType type, BigDecimal amount, String reference) {
+        return submit(LedgerCommand.transaction(account, type, amount, reference));
+    }
+
+    // With the journal, a shard accepts withdrawals against balances the database has not caught up with, so money
+    // debited from an account directly in the database must first be set aside on the account's shard, or the two
+    // could spend the same funds. The hold lasts until the caller's transaction completes. Without the journal it
+    // is not needed: the shard's own writes are conditional on the stored balance.
+    public void hold(AccountSnapshot account, BigDecimal amount) {
+        if (journalEnabled) {
+            submitForTransaction(LedgerCommand.hold(account, amount));
+        }
+    }
+
+    // With the journal, stops the account's shard accepting anything for it until the caller's transaction completes,
+    // so the account can be deleted knowing every acknowledged transaction is in the database. Refused while some
+    // are not yet.
+    public void close(AccountSnapshot account) {
+        if (journalEnabled) {
+            submitForTransaction(LedgerCommand.close(account));
+        }
+    }
+
+    private void submitForTransaction(LedgerCommand command) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Ledger holds can only be taken inside a transaction.");
+        }
+        LedgerShard shard = shardFor(command.account().accountNumber());
+        // Registered first, so a hold the shard places after its caller stopped waiting is still released.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                command.result().cancel(false);
+                shard.release(command);
+            }
+        });
+        submit(command);
+    }
+
+    private Transaction submit(LedgerCommand command) {
+        if (!running || !shardFor(command.account().accountNumber()).offer(command)) {
+            throw new LedgerUnavailableException("The ledger is not accepting transactions. Please retry the request.");
+        }
+        try {
+            return command.result().get(acknowledgeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        } catch (TimeoutException exception) {
+            if (command.kind() != LedgerCommand.Kind.TRANSACTION) {
+                throw new LedgerUnavailableException("The ledger did not respond in time. Please retry the request.");
+            }
+            // The write may still commit, so the caller must not assume it failed.
+            throw new LedgerUnavailableException("The transaction was not confirmed in time and may still be applied. "
+                    + "Check the account's transactions before retrying.");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new LedgerUnavailableException("Interrupted while waiting for the transaction to be confirmed.");
+        }
+    }
+
+    @Override
+    public void start() {
+        shards.forEach(LedgerShard::recover);
+        shards.forEach(LedgerShard::start);
+        running = true;
+        logger.info("Ledger engine started with {} shards.", shards.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (LedgerShard shard : shards) {
+            try {
+                shard.stop(acknowledgeTimeout.toMillis());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Started before and stopped after the web server, so requests still in flight at shutdown are confirmed.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.ledger.queued", shards, s -> s.stream().mapToInt(LedgerShard::queued).sum())
+                .description("Transactions waiting on ledger shards")
+                .register(registry);
+    }
+
+    private LedgerShard shardFor(String accountNumber) {
+        return shards.get(Math.floorMod(accountNumber.hashCode(), shards.size()));
+    }
+}
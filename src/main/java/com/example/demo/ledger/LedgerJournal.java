@@ -0,0 +1,231 @@
+package com.example.demo.ledger;
+
+import com.example.demo.enums.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only journal of one ledger shard, written only by that shard's thread. It is a directory of fixed-size,
+// memory-mapped segment files named after the first sequence number they hold. Each record is
+// [payload length][CRC32C of payload][payload]; a zero length marks the end of the written data. A record that
+// is cut short or fails its checksum ends the journal: it was never forced, so it was never acknowledged.
+class LedgerJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private MappedByteBuffer current;
+    private int forcedPosition;
+    private long lastSequence;
+
+    LedgerJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // Reads every intact entry, in sequence order, and leaves the journal ready to append after the last one.
+    List<JournalEntry> recover() {
+        List<JournalEntry> entries = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+            }
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                MappedByteBuffer buffer = map(file);
+                boolean intact = read(buffer, entries);
+                segments.add(new Segment(file, firstSequence(file)));
+                current = buffer;
+                if (!intact) {
+                    // Anything after a torn record was written after it, so was never acknowledged either.
+                    logger.warn("Ledger journal {} ends with a torn record at offset {}; discarding the rest.", file, buffer.position());
+                    buffer.put(buffer.position(), new byte[buffer.capacity() - buffer.position()]);
+                    buffer.force();
+                    for (Path later : files.subList(i + 1, files.size())) {
+                        Files.delete(later);
+                    }
+                    break;
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not read ledger journal " + directory, exception);
+        }
+        if (!entries.isEmpty()) {
+            lastSequence = entries.get(entries.size() - 1).sequence();
+        }
+        forcedPosition = current == null ? 0 : current.position();
+        return entries;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    // Sequences continue from here when the journal is empty but the database has already applied later ones,
+    // for example after the journal directory was removed.
+    void continueFrom(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    long nextSequence() {
+        return ++lastSequence;
+    }
+
+    void append(JournalEntry entry) {
+        byte[] payload = encode(entry);
+        if (payload.length + 2 * HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Journal entry of " + payload.length + " bytes does not fit in a segment.");
+        }
+        if (current == null || current.remaining() < payload.length + 2 * HEADER_BYTES) {
+            roll(entry.sequence());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        // The length goes in last, so a record is never visible before its checksum and payload are.
+        int start = current.position();
+        current.position(start + Integer.BYTES);
+        current.putInt((int) crc.getValue());
+        current.put(payload);
+        current.putInt(start, payload.length);
+    }
+
+    // Makes everything appended so far durable.
+    void force() {
+        if (current != null && current.position() > forcedPosition) {
+            current.force(forcedPosition, current.position() - forcedPosition);
+            forcedPosition = current.position();
+        }
+    }
+
+    // Deletes the segments whose entries have all been applied to the database. The segment being written is kept.
+    void releaseUpTo(long appliedSequence) {
+        while (segments.size() > 1 && segments.get(1).firstSequence() <= appliedSequence + 1) {
+            Segment released = segments.remove(0);
+            try {
+                Files.deleteIfExists(released.file());
+            } catch (IOException exception) {
+                logger.warn("Could not delete ledger journal segment {}: {}", released.file(), exception.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void roll(long firstSequence) {
+        force();
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        try {
+            current = map(file);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not create ledger journal segment " + file, exception);
+        }
+        segments.add(new Segment(file, firstSequence));
+        forcedPosition = 0;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()));
+        }
+    }
+
+    // Reads records up to the end marker, leaving the buffer positioned there. Returns false on a torn record.
+    private static boolean read(MappedByteBuffer buffer, List<JournalEntry> entries) {
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length == 0) {
+                buffer.position(start);
+                return true;
+            }
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                return false;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                return false;
+            }
+            entries.add(decode(payload));
+        }
+        return true;
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(JournalEntry entry) {
+        byte[] amount = entry.amount().unscaledValue().toByteArray();
+        byte[] currency = entry.currency().getBytes(StandardCharsets.UTF_8);
+        byte[] reference = entry.reference().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 * Long.BYTES + 2 + 3 * Short.BYTES + amount.length + currency.length + reference.length)
+                .putLong(entry.sequence())
+                .putLong(entry.transactionId())
+                .putLong(entry.accountId())
+                .putLong(entry.timestamp().toEpochSecond(ZoneOffset.UTC) * 1_000_000 + entry.timestamp().getNano() / 1_000)
+                .put((byte) entry.type().ordinal())
+                .put((byte) entry.amount().scale())
+                .putShort((short) amount.length).put(amount)
+                .putShort((short) currency.length).put(currency)
+                .putShort((short) reference.length).put(reference)
+                .array();
+    }
+
+    private static JournalEntry decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long sequence = buffer.getLong();
+        long transactionId = buffer.getLong();
+        long accountId = buffer.getLong();
+        long micros = buffer.getLong();
+        TransactionType type = TransactionType.values()[buffer.get()];
+        int scale = buffer.get();
+        BigDecimal amount = new BigDecimal(new BigInteger(bytes(buffer)), scale);
+        String currency = new String(bytes(buffer), StandardCharsets.UTF_8);
+        String reference = new String(bytes(buffer), StandardCharsets.UTF_8);
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+        return new JournalEntry(sequence, transactionId, accountId, type, amount, currency, reference, timestamp);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private record Segment(Path file, long firstSequence) {
+    }
+}
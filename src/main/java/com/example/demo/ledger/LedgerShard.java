@@ -0,0 +1,401 @@
+package com.example.demo.ledger;
+
+import com.example.demo.enums.TransactionType;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.exception.InsufficientFundsException;
+import com.example.demo.exception.LedgerUnavailableException;
+import com.example.demo.metrics.BankingMetrics;
+import com.example.demo.model.Account;
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.BalanceCheckpointService;
+import com.example.demo.service.MonthlyRollupService;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// A single writer thread owning the balances of the accounts hashed to it. Commands are taken from the queue in
+// batches: funds are checked against the in-memory balances without locking, then the accepted commands are
+// written in one database transaction and acknowledged once it has committed. With a journal, they are
+// acknowledged once appended to it and forced to disk instead, and the database catches up after that.
+class LedgerShard implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerShard.class);
+
+    private final BlockingQueue<LedgerCommand> queue;
+    private final int batchSize;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final AccountCache accountCache;
+    private final BankingMetrics bankingMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int index;
+    @Nullable
+    private final LedgerJournal journal;
+    @Nullable
+    private final JournalApplier journalApplier;
+    private final int maxUnapplied;
+    private final Thread thread;
+    // Confined to the shard thread. An entry is only a cache of the stored balance plus anything journalled but not
+    // yet applied, less what is held: it is dropped whenever a write fails or a hold is released, and re-read before
+    // a withdrawal is refused. The least recently used entries are dropped beyond the cache size, which is never
+    // below the batch size so that the accounts of the batch being checked stay cached until it is written.
+    private final Map<Long, BigDecimal> balances;
+    // With the journal, holds and closes placed for writes made outside the shard, until their callers' database
+    // transactions complete and release them.
+    private final Set<LedgerCommand> holds = new HashSet<>();
+    private final Map<Long, LedgerCommand> closing = new HashMap<>();
+    private final Queue<LedgerCommand> releases = new ConcurrentLinkedQueue<>();
+    // Journalled entries the database has not caught up with yet, with their net amount and account snapshot per
+    // account.
+    private final List<JournalEntry> unappliedEntries = new ArrayList<>();
+    private final Map<Long, BigDecimal> unappliedAmounts = new HashMap<>();
+    private final Map<Long, AccountSnapshot> unappliedAccounts = new HashMap<>();
+    private volatile boolean running = true;
+    @Nullable
+    private volatile RuntimeException journalFailure;
+
+    LedgerShard(int index, int queueCapacity, int batchSize, AccountRepository accountRepository,
+                TransactionRepository transactionRepository, BalanceCheckpointService balanceCheckpointService,
+                MonthlyRollupService monthlyRollupService, AccountCache accountCache, BankingMetrics bankingMetrics, TransactionTemplate transactionTemplate,
+                int cachedBalances, @Nullable LedgerJournal journal, @Nullable JournalApplier journalApplier) {
+        this.index = index;
+        this.journal = journal;
+        this.journalApplier = journalApplier;
+        this.maxUnapplied = 16 * Math.max(batchSize, queueCapacity);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        int balanceCacheSize = Math.max(cachedBalances, batchSize);
+        this.balances = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BigDecimal> eldest) {
+                return size() > balanceCacheSize;
+            }
+        };
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.accountCache = accountCache;
+        this.bankingMetrics = bankingMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.thread = new Thread(this, "ledger-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    boolean offer(LedgerCommand command) {
+        return running && journalFailure == null && queue.offer(command);
+    }
+
+    // Replays the journal entries the database has not applied yet. Must be called before start(). If they cannot be
+    // applied the engine does not start, and they stay in the journal.
+    void recover() {
+        if (journal == null || journalApplier == null) {
+            return;
+        }
+        List<JournalEntry> entries = journal.recover();
+        long applied = journalApplier.appliedSequence(index);
+        journal.continueFrom(applied);
+        List<JournalEntry> pending = entries.stream().filter(entry -> entry.sequence() > applied).toList();
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} ledger journal entries of shard {} into the database.", pending.size(), index);
+            journalApplier.apply(index, pending);
+        }
+        journal.releaseUpTo(journal.lastSequence());
+    }
+
+    // Called from any thread; the shard drops the hold or close before it next checks a command.
+    void release(LedgerCommand command) {
+        releases.add(command);
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // Stops taking new commands; the ones already queued are still written before the thread exits.
+    void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        thread.join(timeoutMillis);
+    }
+
+    @Override
+    public void run() {
+        List<LedgerCommand> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LedgerCommand first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!unappliedEntries.isEmpty()) {
+                        catchUp();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException exception) {
+                logger.error("Ledger batch failed: {}", exception.getMessage(), exception);
+                batch.forEach(command -> command.result().completeExceptionally(exception));
+                balances.clear();
+            } finally {
+                batch.clear();
+            }
+        }
+        if (journal != null) {
+            if (!unappliedEntries.isEmpty()) {
+                catchUp();
+            }
+            journal.close();
+        }
+    }
+
+    private void process(List<LedgerCommand> batch) {
+        if (journal != null) {
+            journal(batch);
+            return;
+        }
+        List<LedgerCommand> accepted = check(batch);
+        if (accepted.isEmpty()) {
+            return;
+        }
+        List<Transaction> saved;
+        try {
+            saved = write(accepted);
+        } catch (OptimisticLockingFailureException exception) {
+            // A balance changed outside the ledger. Start again from the stored balances, once.
+            logger.warn("Ledger balances were stale, re-checking {} transactions: {}", accepted.size(), exception.getMessage());
+            accepted.forEach(command -> balances.remove(command.account().id()));
+            accepted = check(accepted);
+            if (accepted.isEmpty()) {
+                return;
+            }
+            saved = write(accepted);
+        } catch (RuntimeException exception) {
+            accepted.forEach(command -> balances.remove(command.account().id()));
+            throw exception;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            Transaction transaction = saved.get(i);
+            bankingMetrics.transactionApplied(transaction.getTransactionType(), transaction.getAmount());
+            accepted.get(i).result().complete(transaction);
+        }
+        logger.debug("Ledger batch of {} transactions committed.", saved.size());
+    }
+
+    private void journal(List<LedgerCommand> batch) {
+        if (journalFailure != null) {
+            throw new LedgerUnavailableException("The ledger journal is unavailable. Please retry the request later.");
+        }
+        if (unappliedEntries.size() >= maxUnapplied && !catchUp()) {
+            throw new LedgerUnavailableException("The ledger is waiting for the database to catch up. Please retry the request.");
+        }
+        List<LedgerCommand> accepted = check(batch);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<JournalEntry> entries = new ArrayList<>(accepted.size());
+        try {
+            for (LedgerCommand command : accepted) {
+                JournalEntry entry = new JournalEntry(journal.nextSequence(), journalApplier.nextTransactionId(),
+                        command.account().id(), command.type(), command.amount(), command.account().currency(),
+                        command.reference(), now);
+                journal.append(entry);
+                entries.add(entry);
+            }
+            journal.force();
+        } catch (RuntimeException exception) {
+            // Some of the entries may be on disk already, so nothing more can be appended safely after them.
+            journalFailure = exception;
+            logger.error("Ledger shard {} stopped accepting transactions: its journal failed.", index, exception);
+            throw exception;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            LedgerCommand command = accepted.get(i);
+            JournalEntry entry = entries.get(i);
+            unappliedEntries.add(entry);
+            unappliedAmounts.merge(entry.accountId(), entry.signedAmount(), BigDecimal::add);
+            unappliedAccounts.put(entry.accountId(), command.account());
+            bankingMetrics.transactionApplied(entry.type(), entry.amount());
+            command.result().complete(entry.toTransaction());
+        }
+        catchUp();
+    }
+
+    // Writes the unapplied journal entries to the database. On failure they are kept and retried with the next
+    // batch, or when the shard is idle.
+    private boolean catchUp() {
+        try {
+            journalApplier.apply(index, unappliedEntries);
+        } catch (RuntimeException exception) {
+            logger.error("Ledger shard {} could not apply {} journal entries to the database; will retry: {}",
+                    index, unappliedEntries.size(), exception.getMessage());
+            return false;
+        }
+        journal.releaseUpTo(unappliedEntries.get(unappliedEntries.size() - 1).sequence());
+        unappliedAccounts.values().forEach(account -> accountCache.evict(account.accountNumber(), account.userId()));
+        unappliedEntries.clear();
+        unappliedAmounts.clear();
+        unappliedAccounts.clear();
+        return true;
+    }
+
+    // Applies the commands to the in-memory balances and returns the ones that can be written. Holds and closes are
+    // completed here once placed, and refused commands straight away with the reason.
+    private List<LedgerCommand> check(List<LedgerCommand> commands) {
+        for (LedgerCommand released; (released = releases.poll()) != null; ) {
+            Long accountId = released.account().id();
+            if (released.kind() == LedgerCommand.Kind.HOLD) {
+                holds.remove(released);
+            } else {
+                closing.remove(accountId, released);
+            }
+            // The caller's transaction has committed or rolled back, so the stored balance says which.
+            balances.remove(accountId);
+        }
+
+        List<LedgerCommand> accepted = new ArrayList<>(commands.size());
+        Map<Long, BigDecimal> pending = new HashMap<>();
+        for (LedgerCommand command : commands) {
+            Long accountId = command.account().id();
+            if (command.result().isDone()) {
+                // A hold or close its caller stopped waiting for; its transaction has already released it.
+                continue;
+            }
+            if (closing.containsKey(accountId)) {
+                command.result().completeExceptionally(new AccountNotFoundException("Bank account was not found."));
+                continue;
+            }
+            if (command.kind() == LedgerCommand.Kind.CLOSE) {
+                if (unappliedAmounts.containsKey(accountId) || pending.containsKey(accountId)
+                        || held(accountId).signum() > 0) {
+                    command.result().completeExceptionally(new LedgerUnavailableException(
+                            "The account has transactions that are still being applied. Please retry the request."));
+                } else {
+                    closing.put(accountId, command);
+                    command.result().complete(null);
+                }
+                continue;
+            }
+            Optional<BigDecimal> balance = balance(accountId);
+            if (command.type() == TransactionType.WITHDRAWAL && balance.isPresent() && balance.get().compareTo(command.amount()) < 0) {
+                // The balance may be stale: re-read it, on top of what this batch has already accepted.
+                balances.remove(accountId);
+                balance = balance(accountId).map(stored -> stored.add(pending.getOrDefault(accountId, BigDecimal.ZERO)));
+                balance.ifPresent(reloaded -> balances.put(accountId, reloaded));
+            }
+            if (balance.isEmpty()) {
+                command.result().completeExceptionally(new AccountNotFoundException("Bank account was not found."));
+                continue;
+            }
+            if (command.type() == TransactionType.WITHDRAWAL && balance.get().compareTo(command.amount()) < 0) {
+                bankingMetrics.insufficientFunds();
+                command.result().completeExceptionally(
+                        new InsufficientFundsException("Insufficient funds to process transaction. Current balance: " + balance.get()));
+                continue;
+            }
+            balances.put(accountId, balance.get().add(command.signedAmount()));
+            if (command.kind() == LedgerCommand.Kind.HOLD) {
+                holds.add(command);
+                command.result().complete(null);
+                continue;
+            }
+            pending.merge(accountId, command.signedAmount(), BigDecimal::add);
+            accepted.add(command);
+        }
+        return accepted;
+    }
+
+    private Optional<BigDecimal> balance(Long accountId) {
+        BigDecimal cached = balances.get(accountId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<BigDecimal> current = accountRepository.findBalanceById(accountId)
+                .map(stored -> stored.add(unappliedAmounts.getOrDefault(accountId, BigDecimal.ZERO)).subtract(held(accountId)));
+        current.ifPresent(balance -> balances.put(accountId, balance));
+        return current;
+    }
+
+    private BigDecimal held(Long accountId) {
+        return holds.stream()
+                .filter(hold -> hold.account().id().equals(accountId))
+                .map(LedgerCommand::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Each account's balance is moved once by the net amount of its commands, with the same conditional UPDATE
+    // as the direct path, so a stale in-memory balance can never overdraw the stored one.
+    private List<Transaction> write(List<LedgerCommand> accepted) {
+        Map<Long, BigDecimal> netAmounts = new LinkedHashMap<>();
+        accepted.forEach(command -> netAmounts.merge(command.account().id(), command.signedAmount(), BigDecimal::add));
+
+        return Optional.ofNullable(transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            netAmounts.forEach((accountId, netAmount) -> {
+                int updated = netAmount.signum() >= 0
+                        ? accountRepository.creditBalance(accountId, netAmount, now)
+                        : accountRepository.debitBalance(accountId, netAmount.negate(), now);
+                if (updated == 0) {
+                    throw new OptimisticLockingFailureException("Balance of account " + accountId + " changed outside the ledger.");
+                }
+            });
+
+            Map<Long, Account> accounts = new HashMap<>();
+            List<Transaction> transactions = accepted.stream()
+                    .map(command -> new Transaction(
+                            accounts.computeIfAbsent(command.account().id(), accountRepository::getReferenceById),
+                            command.account().currency(),
+                            command.amount(),
+                            command.type(),
+                            command.reference()))
+                    .toList();
+            List<Transaction> saved = transactionRepository.saveAll(transactions);
+
+            Map<Long, Transaction> latestByAccount = new LinkedHashMap<>();
+            saved.forEach(transaction -> latestByAccount.put(transaction.getAccount().getId(), transaction));
+            latestByAccount.forEach((accountId, transaction) -> balanceCheckpointService.recordTransaction(accounts.get(accountId), transaction));
+            saved.stream()
+                    .collect(Collectors.groupingBy(transaction -> transaction.getAccount().getId()))
+                    .forEach(monthlyRollupService::recordTransactions);
+            accepted.forEach(command -> accountCache.evict(command.account().accountNumber(), command.account().userId()));
+            return saved;
+        })).orElseThrow();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.metrics;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Publishes how full the async console appender's queue is as banking.logging.queue.size. A queue that stays near
+// banking.logging.async.queue-size means INFO events are being dropped to keep request threads from blocking.
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    private static final String APPENDER_NAME = "ASYNC_CONSOLE";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        Appender<ILoggingEvent> appender = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).getAppender(APPENDER_NAME);
+        if (appender instanceof AsyncAppenderBase<ILoggingEvent> asyncAppender) {
+            Gauge.builder("banking.logging.queue.size", asyncAppender, AsyncAppenderBase::getNumberOfElementsInQueue)
+                    .description("Log events waiting for the async console appender")
+                    .register(registry);
+        }
+    }
+}
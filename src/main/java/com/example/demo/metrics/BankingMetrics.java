@@ -0,0 +1,64 @@
+package com.example.demo.metrics;
+
+import com.example.demo.enums.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Domain counters for the banking operations. Rates (deposits per second and so on) are derived from the
+// counters by the monitoring system.
+@Component
+public class BankingMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionType, Counter> transactions = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, DistributionSummary> transactionAmounts = new EnumMap<>(TransactionType.class);
+    private final Counter insufficientFunds;
+    private final Counter accountNumberBlocksReserved;
+
+    public BankingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (TransactionType type : TransactionType.values()) {
+            String typeTag = type.name().toLowerCase(Locale.ROOT);
+            transactions.put(type, Counter.builder("banking.transactions")
+                    .description("Transactions applied to accounts")
+                    .tag("type", typeTag)
+                    .register(meterRegistry));
+            transactionAmounts.put(type, DistributionSummary.builder("banking.transactions.amount")
+                    .description("Amounts of applied transactions")
+                    .baseUnit("GBP")
+                    .tag("type", typeTag)
+                    .register(meterRegistry));
+        }
+        this.insufficientFunds = Counter.builder("banking.transactions.rejected")
+                .description("Transactions rejected before being applied")
+                .tag("reason", "insufficient_funds")
+                .register(meterRegistry);
+        this.accountNumberBlocksReserved = Counter.builder("banking.account_numbers.blocks_reserved")
+                .description("Blocks of account numbers reserved by this instance")
+                .register(meterRegistry);
+    }
+
+    public void transactionApplied(TransactionType type, BigDecimal amount) {
+        transactions.get(type).increment();
+        transactionAmounts.get(type).record(amount.doubleValue());
+    }
+
+    public void insufficientFunds() {
+        insufficientFunds.increment();
+    }
+
+    public void accessDenied(String resource) {
+        meterRegistry.counter("banking.access.denied", "resource", resource).increment();
+    }
+
+    public void accountNumberBlockReserved() {
+        accountNumberBlocksReserved.increment();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Database time spent by one request. It is bound to the request thread, and to the async thread that writes a
+// streamed response body, so statements on either count towards the same request.
+final class DatabaseTime {
+
+    static final String ATTRIBUTE = DatabaseTime.class.getName();
+
+    private static final ThreadLocal<DatabaseTime> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder nanos = new LongAdder();
+
+    static void bind(DatabaseTime time) {
+        CURRENT.set(time);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    static void add(long nanos) {
+        DatabaseTime time = CURRENT.get();
+        if (time != null) {
+            time.nanos.add(nanos);
+        }
+    }
+
+    long nanos() {
+        return nanos.sum();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+// Adds the time spent executing JDBC statements, and fetching their result rows, to the current request's database
+// time. Rows are timed in ResultSet.next(), which is where a streamed query with a fetch size waits for each
+// further block of rows.
+public class DatabaseTimingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public DatabaseTimingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private static Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DatabaseTimingDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                        return timed(statement, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private static Object timed(Statement statement, Class<?> statementType) {
+        return Proxy.newProxyInstance(DatabaseTimingDataSource.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    Object result = method.getName().startsWith("execute")
+                            ? timedInvoke(statement, method, args)
+                            : invoke(statement, method, args);
+                    return result instanceof ResultSet resultSet ? timed(resultSet) : result;
+                });
+    }
+
+    private static ResultSet timed(ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(DatabaseTimingDataSource.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> "next".equals(method.getName())
+                        ? timedInvoke(resultSet, method, args)
+                        : invoke(resultSet, method, args));
+    }
+
+    private static Object timedInvoke(Object target, Method method, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invoke(target, method, args);
+        } finally {
+            DatabaseTime.add(System.nanoTime() - start);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getTargetException();
+        }
+    }
+}
@@ -13,7 +13,9 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "bank_accounts")
+@Table(name = "bank_accounts", indexes = {
+        @Index(name = "idx_bank_accounts_user_deleted", columnList = "user_id, is_deleted")
+})
 public class Account {
 
     @Id
@@ -48,10 +50,14 @@ public class Account {
     @Column(nullable = false)
     private boolean isDeleted = false;
 
+    @Version
+    private Long version;
+
     // Many-to-One relationship with User
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     // One-to-Many relationship with Transaction
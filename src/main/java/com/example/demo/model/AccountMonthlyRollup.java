@@ -0,0 +1,48 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// The number and total amount of an account's transactions of one type in one calendar month (monthStart is the
+// first day of the month), kept up to date in the database transaction that inserts the transactions.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(AccountMonthlyRollup.Key.class)
+@Table(name = "account_monthly_rollups")
+public class AccountMonthlyRollup {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    private LocalDate monthStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate monthStart;
+        private TransactionType transactionType;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A range of account numbers handed to one application instance: counters startCounter up to startCounter +
+// blockSize. The start is taken from the account number counter, which is what keeps instances from ever being
+// given overlapping ranges.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "account_number_blocks")
+public class AccountNumberBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_number_blocks_seq")
+    @SequenceGenerator(name = "account_number_blocks_seq", sequenceName = "account_number_blocks_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private long startCounter;
+
+    @Column(nullable = false)
+    private int blockSize;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime reservedTimestamp;
+
+    public AccountNumberBlock(long startCounter, int blockSize) {
+        this.startCounter = startCounter;
+        this.blockSize = blockSize;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        reservedTimestamp = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The first account number counter not yet in any block. Its single row is moved on by every reservation, by that
+// reservation's block size and under the row lock, so blocks never overlap whatever size each instance uses.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_number_counter")
+public class AccountNumberCounter {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long nextCounter;
+}
@@ -0,0 +1,36 @@
+package com.example.demo.model;
+
+import com.example.demo.enums.AccountType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Immutable copy of a live account's state, safe to share between requests from the account cache.
+public record AccountSnapshot(
+        Long id,
+        String accountNumber,
+        String sortCode,
+        String name,
+        AccountType accountType,
+        BigDecimal balance,
+        String currency,
+        LocalDateTime createdTimestamp,
+        LocalDateTime updatedTimestamp,
+        Long userId
+) {
+
+    public static AccountSnapshot of(Account account) {
+        return new AccountSnapshot(
+                account.getId(),
+                account.getAccountNumber(),
+                account.getSortCode(),
+                account.getName(),
+                account.getAccountType(),
+                account.getBalance(),
+                account.getCurrency(),
+                account.getCreatedTimestamp(),
+                account.getUpdatedTimestamp(),
+                account.getUser().getId()
+        );
+    }
+}
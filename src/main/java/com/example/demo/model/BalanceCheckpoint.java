@@ -0,0 +1,57 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The balance of an account immediately after the transaction (timestamp, transactionId) was applied.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_balance_checkpoints", indexes = {
+        @Index(name = "idx_balance_checkpoints_account_timestamp_txn", columnList = "account_id, timestamp, transaction_id")
+})
+public class BalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Account account;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdTimestamp;
+
+    public BalanceCheckpoint(Account account, Transaction transaction, BigDecimal balance) {
+        this.account = account;
+        this.transactionId = transaction.getId();
+        this.timestamp = transaction.getTimestamp();
+        this.balance = balance;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdTimestamp = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_timestamp"))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // SHA-256 of the request the key was first used with, so a reused key with a different body is rejected.
+    @Column(nullable = false, length = 64)
+    private String requestFingerprint;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Transaction transaction;
+
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private LocalDateTime createdTimestamp;
+
+    public IdempotencyRecord(String idempotencyKey, Long userId, String requestFingerprint, Transaction transaction) {
+        this.idempotencyKey = idempotencyKey;
+        this.userId = userId;
+        this.requestFingerprint = requestFingerprint;
+        this.transaction = transaction;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdTimestamp = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// How far the database has caught up with one ledger shard's journal. It is written in the same transaction as
+// the entries it covers, so replaying the journal after a crash applies every entry exactly once.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ledger_journal_positions")
+public class LedgerJournalPosition {
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private long appliedSequence;
+}
@@ -1,30 +1,38 @@
 package com.example.demo.model;
 
 import com.example.demo.enums.TransactionType;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "account_transactions")
+@Table(name = "account_transactions", indexes = {
+        @Index(name = "idx_account_transactions_account_timestamp_id", columnList = "account_id, timestamp, id")
+})
 public class Transaction {
 
+    // Sequence ids (rather than IDENTITY) let Hibernate batch the inserts of a multi-transaction request.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_transactions_seq")
+    @SequenceGenerator(name = "account_transactions_seq", sequenceName = "account_transactions_seq", allocationSize = 50)
     private Long id;
 
     // Many-to-One relationship with Account
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Account account;
 
     @Column(nullable = false, precision = 19, scale = 2)
@@ -43,16 +51,27 @@ public class Transaction {
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
+    // Shared by the two legs of an account-to-account transfer; null for any other transaction.
+    @Column(length = 36, updatable = false)
+    @Nullable
+    private String transferReference;
+
     public Transaction(Account account, BigDecimal amount, TransactionType transactionType, String description) {
+        this(account, account.getCurrency(), amount, transactionType, description);
+    }
+
+    // For callers holding only a reference to the account, so the currency does not have to be loaded from it.
+    public Transaction(Account account, String currency, BigDecimal amount, TransactionType transactionType, String description) {
         this.account = account;
         this.amount = amount;
-        this.currency = account.getCurrency();
+        this.currency = currency;
         this.transactionType = transactionType;
         this.description = description;
     }
 
+    // Truncated to the column precision so the value held in memory matches the stored one used in page tokens.
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.AccountMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountMonthlyRollupRepository extends JpaRepository<AccountMonthlyRollup, AccountMonthlyRollup.Key> {
+
+    @Query("SELECT r FROM AccountMonthlyRollup r WHERE r.accountId = ?1 AND r.monthStart >= ?2 AND r.monthStart <= ?3 " +
+            "ORDER BY r.monthStart, r.transactionType")
+    List<AccountMonthlyRollup> findByAccountIdBetween(Long accountId, LocalDate fromMonth, LocalDate toMonth);
+
+    @Modifying
+    @Query("UPDATE AccountMonthlyRollup r SET r.transactionCount = r.transactionCount + ?4, r.totalAmount = r.totalAmount + ?5 " +
+            "WHERE r.accountId = ?1 AND r.monthStart = ?2 AND r.transactionType = ?3")
+    int addToRollup(Long accountId, LocalDate monthStart, TransactionType type, long count, BigDecimal amount);
+
+    // A plain insert, rather than save(), which would first select the row by its assigned key.
+    @Modifying
+    @Query("INSERT INTO AccountMonthlyRollup (accountId, monthStart, transactionType, transactionCount, totalAmount) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5)")
+    void insertRollup(Long accountId, LocalDate monthStart, TransactionType type, long count, BigDecimal amount);
+}
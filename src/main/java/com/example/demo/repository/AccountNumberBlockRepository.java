@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AccountNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, Long> {
+
+    // Locks the counter row until the reserving transaction commits, so the value read back after it is this
+    // reservation's alone.
+    @Modifying
+    @Query("UPDATE AccountNumberCounter c SET c.nextCounter = c.nextCounter + ?1 WHERE c.id = 1")
+    int advanceCounter(long blockSize);
+
+    @Query("SELECT c.nextCounter FROM AccountNumberCounter c WHERE c.id = 1")
+    long findNextCounter();
+}
@@ -1,10 +1,15 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +19,25 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT acc FROM Account acc WHERE acc.accountNumber = ?1 AND acc.isDeleted = false")
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT acc FROM Account acc WHERE acc.accountNumber = ?1 AND acc.isDeleted = false")
+    Optional<Account> findByAccountNumberForUpdate(String accountNumber);
+
     @Query("SELECT acc FROM Account acc WHERE acc.user.id = ?1 AND acc.isDeleted = false")
     List<Account> findByUserId(Long userId);
+
+    @Query("SELECT acc.balance FROM Account acc WHERE acc.id = ?1 AND acc.isDeleted = false")
+    Optional<BigDecimal> findBalanceById(Long id);
+
+    // Balance changes are applied as a single conditional UPDATE so concurrent writers never lose an update.
+    // The version is bumped as well, so a stale entity saved elsewhere fails its optimistic check.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account acc SET acc.balance = acc.balance + ?2, acc.version = acc.version + 1, acc.updatedTimestamp = ?3 " +
+            "WHERE acc.id = ?1 AND acc.isDeleted = false")
+    int creditBalance(Long id, BigDecimal amount, LocalDateTime updatedTimestamp);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account acc SET acc.balance = acc.balance - ?2, acc.version = acc.version + 1, acc.updatedTimestamp = ?3 " +
+            "WHERE acc.id = ?1 AND acc.isDeleted = false AND acc.balance >= ?2")
+    int debitBalance(Long id, BigDecimal amount, LocalDateTime updatedTimestamp);
 }
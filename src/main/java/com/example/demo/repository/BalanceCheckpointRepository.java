@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.BalanceCheckpoint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    @Query("SELECT cp FROM BalanceCheckpoint cp WHERE cp.account.id = ?1 ORDER BY cp.timestamp DESC, cp.transactionId DESC")
+    List<BalanceCheckpoint> findLatestByAccountId(Long accountId, Limit limit);
+
+    @Query("SELECT cp FROM BalanceCheckpoint cp WHERE cp.account.id = ?1 AND cp.timestamp <= ?2 " +
+            "ORDER BY cp.timestamp DESC, cp.transactionId DESC")
+    List<BalanceCheckpoint> findLatestAtOrBefore(Long accountId, LocalDateTime asOf, Limit limit);
+
+    @Query("SELECT cp FROM BalanceCheckpoint cp WHERE cp.account.id = ?1 AND cp.timestamp > ?2 " +
+            "ORDER BY cp.timestamp, cp.transactionId")
+    List<BalanceCheckpoint> findEarliestAfter(Long accountId, LocalDateTime asOf, Limit limit);
+}
@@ -1,16 +1,65 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    // Spelled out because the derived queries join bank_accounts and filter on the joined id, which H2 plans as a
+    // scan of account_transactions; filtering on the foreign key column lets it use the account indexes.
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = ?1")
     List<Transaction> findByAccountId(Long accountId);
 
+    @Query("SELECT t FROM Transaction t WHERE t.id = ?1 AND t.account.id = ?2")
     Optional<Transaction> findByIdAndAccountId(Long transactionId, Long accountId);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = ?1 ORDER BY t.timestamp, t.id")
+    List<Transaction> findFirstPageByAccountId(Long accountId, Limit limit);
+
+    // The redundant "timestamp >= ?2" gives the database a range start on (account_id, timestamp, id),
+    // so a page is an index seek rather than a scan of everything before the cursor.
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = ?1 AND t.timestamp >= ?2 " +
+            "AND (t.timestamp > ?2 OR t.id > ?3) ORDER BY t.timestamp, t.id")
+    List<Transaction> findPageByAccountIdAfter(Long accountId, LocalDateTime timestamp, Long transactionId, Limit limit);
+
+    // Must be consumed inside a transaction; callers detach each row once written so memory use stays flat.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = ?1 ORDER BY t.timestamp, t.id")
+    Stream<Transaction> streamByAccountId(Long accountId);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.account.id = ?1 AND t.timestamp >= ?2 AND (t.timestamp > ?2 OR t.id > ?3)")
+    long countByAccountIdAfter(Long accountId, LocalDateTime timestamp, Long transactionId);
+
+    // Net effect of the transactions after (timestamp, transactionId) up to and including asOf.
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType = com.example.demo.enums.TransactionType.DEPOSIT THEN t.amount ELSE -t.amount END), 0) " +
+            "FROM Transaction t WHERE t.account.id = ?1 AND t.timestamp >= ?2 AND (t.timestamp > ?2 OR t.id > ?3) AND t.timestamp <= ?4")
+    BigDecimal sumNetAmountAfterUpTo(Long accountId, LocalDateTime timestamp, Long transactionId, LocalDateTime asOf);
+
+    // Net effect of the transactions after asOf up to and including (timestamp, transactionId).
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType = com.example.demo.enums.TransactionType.DEPOSIT THEN t.amount ELSE -t.amount END), 0) " +
+            "FROM Transaction t WHERE t.account.id = ?1 AND t.timestamp > ?2 AND t.timestamp <= ?3 AND (t.timestamp < ?3 OR t.id <= ?4)")
+    BigDecimal sumNetAmountAfterUpToTransaction(Long accountId, LocalDateTime asOf, LocalDateTime timestamp, Long transactionId);
+
+    // The current balance less the net effect of the transactions after asOf. Read in one statement, so a transaction
+    // committed meanwhile is either in both the balance and the sum or in neither.
+    @Query("SELECT a.balance - COALESCE((SELECT SUM(CASE WHEN t.transactionType = com.example.demo.enums.TransactionType.DEPOSIT THEN t.amount ELSE -t.amount END) " +
+            "FROM Transaction t WHERE t.account.id = a.id AND t.timestamp > ?2), 0) " +
+            "FROM Account a WHERE a.id = ?1")
+    Optional<BigDecimal> findBalanceAsOf(Long accountId, LocalDateTime asOf);
 }
@@ -0,0 +1,13 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// The caller of the current request, taken from the claims of their JWT. Carries just enough to check ownership
+// by ID; services that need the rest of the user load the entity explicitly.
+public record AuthenticatedUser(Long id, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+// Turns a validated JWT into an authentication whose principal is an AuthenticatedUser, so the user's ID is
+// available for the rest of the request without a users query.
+@Component
+public class AuthenticatedUserJwtConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String USER_ID_CLAIM = "uid";
+    private static final String SCOPE_CLAIM = "scope";
+
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    // Only a handful of distinct scope claims exist (one per combination of roles), so their authorities are
+    // built once rather than on every request.
+    private final Cache<String, Collection<GrantedAuthority>> authoritiesByScope = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Object userId = jwt.getClaims().get(USER_ID_CLAIM);
+        if (!(userId instanceof Number id) || jwt.getSubject() == null) {
+            throw new InvalidBearerTokenException("Token does not identify a user.");
+        }
+        AuthenticatedUser principal = new AuthenticatedUser(id.longValue(), jwt.getSubject());
+        return UsernamePasswordAuthenticationToken.authenticated(principal, jwt, authorities(jwt));
+    }
+
+    private Collection<GrantedAuthority> authorities(Jwt jwt) {
+        if (!(jwt.getClaims().get(SCOPE_CLAIM) instanceof String scope)) {
+            return authoritiesConverter.convert(jwt);
+        }
+        return authoritiesByScope.get(scope, key -> List.copyOf(authoritiesConverter.convert(jwt)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// UserDetails that remembers the user's ID, so the token minted at login can carry it as a claim.
+public class BankUserDetails extends User {
+
+    private final Long id;
+
+    public BankUserDetails(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
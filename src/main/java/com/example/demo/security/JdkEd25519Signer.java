@@ -0,0 +1,62 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.impl.BaseJWSProvider;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Set;
+
+// EdDSA signing with the JDK's own Ed25519 implementation. Nimbus only signs Ed25519 through Google Tink, which
+// this project does not depend on.
+public class JdkEd25519Signer extends BaseJWSProvider implements JWSSigner {
+
+    // DER prefix of a PKCS#8 Ed25519 private key, followed by the 32-byte seed that an OKP JWK holds as "d".
+    private static final byte[] PKCS8_PREFIX = {0x30, 0x2e, 0x02, 0x01, 0x00, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x04, 0x22, 0x04, 0x20};
+
+    private final PrivateKey privateKey;
+
+    public JdkEd25519Signer(OctetKeyPair key) throws JOSEException {
+        super(Set.of(JWSAlgorithm.EdDSA));
+        if (!Curve.Ed25519.equals(key.getCurve()) || key.getD() == null) {
+            throw new JOSEException("Signing needs a private Ed25519 key");
+        }
+        try {
+            byte[] encoded = concat(PKCS8_PREFIX, key.getD().decode());
+            this.privateKey = KeyFactory.getInstance("Ed25519").generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException exception) {
+            throw new JOSEException("Invalid Ed25519 private key", exception);
+        }
+    }
+
+    @Override
+    public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm " + header.getAlgorithm());
+        }
+        try {
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initSign(privateKey);
+            signature.update(signingInput);
+            return Base64URL.encode(signature.sign());
+        } catch (GeneralSecurityException exception) {
+            throw new JOSEException("Ed25519 signing failed", exception);
+        }
+    }
+
+    static byte[] concat(byte[] prefix, byte[] key) {
+        byte[] encoded = new byte[prefix.length + key.length];
+        System.arraycopy(prefix, 0, encoded, 0, prefix.length);
+        System.arraycopy(key, 0, encoded, prefix.length, key.length);
+        return encoded;
+    }
+}
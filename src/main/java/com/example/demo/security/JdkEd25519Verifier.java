@@ -0,0 +1,69 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.impl.BaseJWSProvider;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Set;
+
+// EdDSA verification with the JDK's own Ed25519 implementation, the counterpart of JdkEd25519Signer.
+public class JdkEd25519Verifier extends BaseJWSProvider implements JWSVerifier {
+
+    // DER prefix of an X.509 Ed25519 public key, followed by the 32-byte key that an OKP JWK holds as "x".
+    private static final byte[] X509_PREFIX = {0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00};
+
+    private final PublicKey publicKey;
+
+    public JdkEd25519Verifier(PublicKey publicKey) {
+        super(Set.of(JWSAlgorithm.EdDSA));
+        this.publicKey = publicKey;
+    }
+
+    public static PublicKey publicKey(OctetKeyPair key) throws JOSEException {
+        if (!Curve.Ed25519.equals(key.getCurve())) {
+            throw new JOSEException("Unsupported OKP curve " + key.getCurve());
+        }
+        try {
+            byte[] encoded = JdkEd25519Signer.concat(X509_PREFIX, key.getX().decode());
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException exception) {
+            throw new JOSEException("Invalid Ed25519 public key", exception);
+        }
+    }
+
+    // The raw 32-byte key, as an OKP JWK holds it.
+    static byte[] rawKey(PublicKey publicKey) {
+        byte[] encoded = publicKey.getEncoded();
+        byte[] raw = new byte[encoded.length - X509_PREFIX.length];
+        System.arraycopy(encoded, X509_PREFIX.length, raw, 0, raw.length);
+        return raw;
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm " + header.getAlgorithm());
+        }
+        try {
+            Signature verifier = Signature.getInstance("Ed25519");
+            verifier.initVerify(publicKey);
+            verifier.update(signingInput);
+            return verifier.verify(signature.decode());
+        } catch (SignatureException exception) {
+            return false;
+        } catch (GeneralSecurityException exception) {
+            throw new JOSEException("Ed25519 verification failed", exception);
+        }
+    }
+}
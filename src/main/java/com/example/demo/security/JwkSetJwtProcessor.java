@@ -0,0 +1,67 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jwk.AsymmetricJWK;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+
+// Verifies tokens against whichever key in the JWK source their kid names, so tokens signed by a key that has
+// since been rotated out stay valid until they expire. Only the algorithms JwtKeyStore issues are accepted.
+// Claims are checked by NimbusJwtDecoder's validators, as they are for the decoders Spring builds itself.
+public class JwkSetJwtProcessor extends DefaultJWTProcessor<SecurityContext> {
+
+    public JwkSetJwtProcessor(JWKSource<SecurityContext> jwkSource) {
+        setJWSKeySelector(new KeySelector(jwkSource));
+        setJWSVerifierFactory(new VerifierFactory());
+        setJWTClaimsSetVerifier((claims, context) -> {
+        });
+    }
+
+    private record KeySelector(JWKSource<SecurityContext> jwkSource) implements JWSKeySelector<SecurityContext> {
+
+        @Override
+        public List<Key> selectJWSKeys(JWSHeader header, SecurityContext context) throws KeySourceException {
+            if (!JwtKeyStore.SUPPORTED_ALGORITHMS.contains(header.getAlgorithm())) {
+                return List.of();
+            }
+            List<Key> keys = new ArrayList<>();
+            for (JWK jwk : jwkSource.get(new JWKSelector(JWKMatcher.forJWSHeader(header)), context)) {
+                try {
+                    keys.add(jwk instanceof OctetKeyPair octetKeyPair
+                            ? JdkEd25519Verifier.publicKey(octetKeyPair)
+                            : ((AsymmetricJWK) jwk).toPublicKey());
+                } catch (JOSEException exception) {
+                    throw new KeySourceException("Unusable JWT verification key " + jwk.getKeyID(), exception);
+                }
+            }
+            return keys;
+        }
+    }
+
+    private static class VerifierFactory extends DefaultJWSVerifierFactory {
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            if (JWSAlgorithm.EdDSA.equals(header.getAlgorithm()) && key instanceof PublicKey publicKey) {
+                return new JdkEd25519Verifier(publicKey);
+            }
+            return super.createJWSVerifier(header, key);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.EdECPrivateKey;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Token signing keys, kept as a JWK set file so that tokens survive restarts and every instance pointed at the
+// same file signs and verifies with the same keys. The first key in the file signs; the others only verify, so
+// tokens signed before a rotation stay valid until they expire.
+//
+// A new signing key is generated when the file has none, when the configured algorithm changes, or when the
+// signing key is older than the rotation period. The key it replaces is given an expiry of the retention period and
+// dropped from the file once that has passed. Loading holds a lock on a sibling ".lock" file from the read to the
+// write, so instances that find the key due at the same time take turns: the first rotates, and the others read
+// the key it wrote instead of each writing their own.
+public class JwtKeyStore {
+
+    public static final Set<JWSAlgorithm> SUPPORTED_ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256, JWSAlgorithm.EdDSA);
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyStore.class);
+
+    // Serialises loads within this JVM, where a second FileChannel.lock on the same file would throw.
+    private static final ReentrantLock localLock = new ReentrantLock();
+
+    private final Path path;
+    private final JWSAlgorithm algorithm;
+    private final Duration rotationPeriod;
+    private final Duration retention;
+
+    public JwtKeyStore(Path path, JWSAlgorithm algorithm, Duration rotationPeriod, Duration retention) {
+        if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Unsupported JWT signing algorithm " + algorithm + ", expected one of " + SUPPORTED_ALGORITHMS);
+        }
+        this.path = path;
+        this.algorithm = algorithm;
+        this.rotationPeriod = rotationPeriod;
+        this.retention = retention;
+    }
+
+    // Reads the key set, rotating and writing it back first if the signing key has to change.
+    public JWKSet load() throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        localLock.lock();
+        try (FileChannel lockFile = FileChannel.open(directory.resolve(path.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockFile.lock()) {
+            return loadLocked();
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private JWKSet loadLocked() throws IOException {
+        Instant now = Instant.now();
+        List<JWK> stored = List.of();
+        if (Files.exists(path)) {
+            try {
+                stored = JWKSet.load(path.toFile()).getKeys();
+            } catch (ParseException exception) {
+                throw new IOException("Unreadable JWT key store " + path, exception);
+            }
+        }
+        List<JWK> keys = new ArrayList<>(stored.stream()
+                .filter(key -> key.getExpirationTime() == null || key.getExpirationTime().toInstant().isAfter(now))
+                .toList());
+
+        JWK signingKey = keys.isEmpty() ? null : keys.get(0);
+        if (signingKey != null && algorithm.equals(signingKey.getAlgorithm()) && !dueForRotation(signingKey, now)) {
+            if (keys.size() < stored.size()) {
+                write(new JWKSet(keys));
+            }
+            logger.atDebug()
+                    .addKeyValue("kid", signingKey.getKeyID())
+                    .addKeyValue("algorithm", algorithm)
+                    .addKeyValue("keys", keys.size())
+                    .log("Loaded JWT signing keys");
+            return new JWKSet(keys);
+        }
+
+        if (signingKey != null) {
+            keys.set(0, retire(signingKey, now.plus(retention)));
+        }
+        JWK newKey = generate(algorithm);
+        keys.add(0, newKey);
+        JWKSet keySet = new JWKSet(keys);
+        write(keySet);
+        logger.atInfo()
+                .addKeyValue("kid", newKey.getKeyID())
+                .addKeyValue("algorithm", algorithm)
+                .addKeyValue("previousKid", signingKey == null ? null : signingKey.getKeyID())
+                .log("Generated JWT signing key");
+        return keySet;
+    }
+
+    // A fresh private key for the algorithm, with a random kid and the time it was made.
+    public static JWK generate(JWSAlgorithm algorithm) {
+        String keyId = UUID.randomUUID().toString();
+        Date issuedAt = new Date();
+        try {
+            if (JWSAlgorithm.RS256.equals(algorithm)) {
+                return new RSAKeyGenerator(2048).keyID(keyId).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).issueTime(issuedAt).generate();
+            }
+            if (JWSAlgorithm.ES256.equals(algorithm)) {
+                return new ECKeyGenerator(Curve.P_256).keyID(keyId).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).issueTime(issuedAt).generate();
+            }
+            if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+                KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                byte[] privateKey = ((EdECPrivateKey) keyPair.getPrivate()).getBytes().orElseThrow();
+                return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(JdkEd25519Verifier.rawKey(keyPair.getPublic())))
+                        .d(Base64URL.encode(privateKey))
+                        .keyID(keyId).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).issueTime(issuedAt)
+                        .build();
+            }
+        } catch (JOSEException | GeneralSecurityException exception) {
+            throw new IllegalStateException("Failed to generate " + algorithm + " key", exception);
+        }
+        throw new IllegalArgumentException("Unsupported JWT signing algorithm " + algorithm);
+    }
+
+    private boolean dueForRotation(JWK key, Instant now) {
+        return key.getIssueTime() == null || key.getIssueTime().toInstant().plus(rotationPeriod).isBefore(now);
+    }
+
+    // The same key, kept only to verify the tokens it already signed.
+    private static JWK retire(JWK key, Instant expiresAt) throws IOException {
+        Map<String, Object> json = key.toJSONObject();
+        json.put("exp", expiresAt.getEpochSecond());
+        try {
+            return JWK.parse(json);
+        } catch (ParseException exception) {
+            throw new IOException("Failed to retire JWT key " + key.getKeyID(), exception);
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a reader never sees half a key set.
+    private void write(JWKSet keySet) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            if (Files.getFileStore(temporary).supportsFileAttributeView("posix")) {
+                Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-------"));
+            }
+            Files.writeString(temporary, keySet.toString(false), StandardCharsets.UTF_8);
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
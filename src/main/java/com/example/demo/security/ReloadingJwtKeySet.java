@@ -0,0 +1,84 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.io.IOException;
+import java.util.List;
+
+// The keys this instance signs and verifies with, loaded from the JwtKeyStore at startup and again every reload
+// interval. Reloading is what rotates the signing key of a long-running instance, and what brings in a key that
+// another instance sharing the file has rotated to. Replaced keys are retained for a token lifetime plus one reload
+// interval, so tokens that an instance signs with a key it has not yet reloaded past still verify everywhere.
+public class ReloadingJwtKeySet {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReloadingJwtKeySet.class);
+
+    private final JwtKeyStore keyStore;
+    private volatile Keys keys;
+
+    public ReloadingJwtKeySet(JwtKeyStore keyStore) throws IOException {
+        this.keyStore = keyStore;
+        this.keys = keys(keyStore.load());
+        logSigningKey(null);
+    }
+
+    // Public keys only: the signing key's private part stays with the encoder.
+    public List<JWK> select(JWKSelector selector, SecurityContext context) {
+        return selector.select(keys.publicKeys());
+    }
+
+    public Jwt encode(JwtEncoderParameters parameters) {
+        return keys.encoder().encode(parameters);
+    }
+
+    public String signingKeyId() {
+        return keys.signingKeyId();
+    }
+
+    // A failed reload keeps the current keys, which stay usable until the file can be read again.
+    @Scheduled(fixedDelayString = "${banking.security.jwt.reload-interval:5m}",
+            initialDelayString = "${banking.security.jwt.reload-interval:5m}")
+    public void reload() {
+        try {
+            String previousKeyId = signingKeyId();
+            keys = keys(keyStore.load());
+            logSigningKey(previousKeyId);
+        } catch (IOException | RuntimeException exception) {
+            logger.atWarn()
+                    .setCause(exception)
+                    .addKeyValue("kid", signingKeyId())
+                    .log("Failed to reload JWT keys, keeping the current ones");
+        }
+    }
+
+    private void logSigningKey(String previousKeyId) {
+        if (!signingKeyId().equals(previousKeyId)) {
+            logger.atInfo()
+                    .addKeyValue("kid", signingKeyId())
+                    .addKeyValue("previousKid", previousKeyId)
+                    .addKeyValue("keys", keys.publicKeys().getKeys().size())
+                    .log("Signing JWTs with key");
+        }
+    }
+
+    private static Keys keys(JWKSet keySet) throws IOException {
+        JWK signingKey = keySet.getKeys().get(0);
+        try {
+            return new Keys(keySet.toPublicJWKSet(), new SigningKeyJwtEncoder(signingKey), signingKey.getKeyID());
+        } catch (JOSEException exception) {
+            throw new IOException("Unusable JWT signing key " + signingKey.getKeyID(), exception);
+        }
+    }
+
+    private record Keys(JWKSet publicKeys, SigningKeyJwtEncoder encoder, String signingKeyId) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+import java.time.Instant;
+import java.util.Date;
+
+// Signs every token with one key, whose kid goes in the header so verifiers can pick it out of the key set.
+// Unlike NimbusJwtEncoder the signer is built once rather than looked up per token, and Ed25519 keys sign
+// through the JDK.
+public class SigningKeyJwtEncoder implements JwtEncoder {
+
+    private final JWSHeader header;
+    private final JWSSigner signer;
+
+    public SigningKeyJwtEncoder(JWK signingKey) throws JOSEException {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(signingKey.getAlgorithm().getName());
+        this.header = new JWSHeader.Builder(algorithm)
+                .type(JOSEObjectType.JWT)
+                .keyID(signingKey.getKeyID())
+                .build();
+        this.signer = switch (signingKey) {
+            case RSAKey rsaKey -> new RSASSASigner(rsaKey);
+            case ECKey ecKey -> new ECDSASigner(ecKey);
+            case OctetKeyPair octetKeyPair -> new JdkEd25519Signer(octetKeyPair);
+            default -> throw new JOSEException("Unsupported signing key type " + signingKey.getKeyType());
+        };
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwtClaimsSet claims = parameters.getClaims();
+        JWTClaimsSet.Builder claimsSet = new JWTClaimsSet.Builder();
+        claims.getClaims().forEach((name, value) -> claimsSet.claim(name, value instanceof Instant instant ? Date.from(instant) : value));
+
+        SignedJWT jwt = new SignedJWT(header, claimsSet.build());
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException exception) {
+            throw new JwtEncodingException("Failed to sign the JWT", exception);
+        }
+        return new Jwt(jwt.serialize(), claims.getIssuedAt(), claims.getExpiresAt(), header.toJSONObject(), claims.getClaims());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through cache of live accounts, by account number and by owner. Every write to an account must call
+// evict(...): the entries are dropped straight away, so reads later in the writing transaction miss, and again
+// once that transaction completes, so nothing read before the commit survives it. A load that overlaps an
+// eviction is not kept, because it may have read the old row.
+@Component
+public class AccountCache implements MeterBinder {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, AccountSnapshot> accountsByNumber;
+    private final Cache<Long, List<AccountSnapshot>> accountsByUser;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AccountCache(AccountRepository accountRepository,
+                        @Value("${banking.account-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${banking.account-cache.time-to-live:5m}") Duration timeToLive) {
+        this.accountRepository = accountRepository;
+        this.accountsByNumber = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.accountsByUser = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<AccountSnapshot> findByAccountNumber(String accountNumber) {
+        AccountSnapshot cached = accountsByNumber.getIfPresent(accountNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = evictions.get();
+        Optional<AccountSnapshot> loaded = accountRepository.findByAccountNumber(accountNumber).map(AccountSnapshot::of);
+        loaded.ifPresent(snapshot -> populate(accountsByNumber, accountNumber, snapshot, generation));
+        return loaded;
+    }
+
+    public List<AccountSnapshot> findByUserId(Long userId) {
+        List<AccountSnapshot> cached = accountsByUser.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = evictions.get();
+        List<AccountSnapshot> loaded = accountRepository.findByUserId(userId).stream()
+                .map(AccountSnapshot::of)
+                .toList();
+        populate(accountsByUser, userId, loaded, generation);
+        return loaded;
+    }
+
+    public void evict(String accountNumber, Long userId) {
+        invalidate(accountNumber, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(accountNumber, userId);
+                }
+            });
+        }
+    }
+
+    // Publishes hit/miss/eviction metrics as cache.*{cache=accountsByNumber|accountsByUser}.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accountsByNumber, "accountsByNumber");
+        CaffeineCacheMetrics.monitor(registry, accountsByUser, "accountsByUser");
+    }
+
+    public CacheStats accountsByNumberStats() {
+        return accountsByNumber.stats();
+    }
+
+    public CacheStats accountsByUserStats() {
+        return accountsByUser.stats();
+    }
+
+    private void invalidate(String accountNumber, Long userId) {
+        evictions.incrementAndGet();
+        accountsByNumber.invalidate(accountNumber);
+        accountsByUser.invalidate(userId);
+    }
+
+    private <K, V> void populate(Cache<K, V> cache, K key, V value, long generation) {
+        // A read-write transaction may be looking at its own uncommitted changes, which must not leak to others.
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        cache.put(key, value);
+        if (evictions.get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.metrics.BankingMetrics;
+import com.example.demo.model.AccountNumberBlock;
+import com.example.demo.repository.AccountNumberBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out unique 8-digit account numbers without checking the accounts table. Each instance reserves a block
+// of consecutive counters from the shared account number counter and issues them from memory; every counter
+// is passed through a keyed permutation of 0..99,999,999 so consecutive accounts do not get guessable numbers.
+// Distinct counters always map to distinct numbers, so instances can never collide.
+@Component
+public class AccountNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountNumberAllocator.class);
+
+    private static final int HALF_DOMAIN = 10_000;
+    private static final long DOMAIN = (long) HALF_DOMAIN * HALF_DOMAIN;
+    private static final int ROUNDS = 4;
+
+    private final AccountNumberBlockRepository accountNumberBlockRepository;
+    private final TransactionTemplate reservationTransaction;
+    private final BankingMetrics bankingMetrics;
+    private final int blockSize;
+    private final long[] roundKeys;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long nextCounter;
+    private long blockEnd;
+
+    public AccountNumberAllocator(AccountNumberBlockRepository accountNumberBlockRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  BankingMetrics bankingMetrics,
+                                  @Value("${banking.account-number.block-size:100}") int blockSize,
+                                  @Value("${banking.account-number.permutation-key:4417250398152613}") long permutationKey) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("banking.account-number.block-size must be positive");
+        }
+        this.accountNumberBlockRepository = accountNumberBlockRepository;
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.bankingMetrics = bankingMetrics;
+        this.blockSize = blockSize;
+        this.roundKeys = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            roundKeys[round] = mix(permutationKey + round);
+        }
+    }
+
+    public String nextAccountNumber() {
+        lock.lock();
+        try {
+            if (nextCounter == blockEnd) {
+                reserveBlock();
+            }
+            return String.format("%08d", permute(nextCounter++));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Committed on its own so the block stays reserved even if the account that needed it is rolled back. The block
+    // starts wherever the counter stood, so it never overlaps one reserved with a different block size.
+    private void reserveBlock() {
+        AccountNumberBlock block = Objects.requireNonNull(reservationTransaction.execute(status -> {
+            accountNumberBlockRepository.advanceCounter(blockSize);
+            long end = accountNumberBlockRepository.findNextCounter();
+            if (end > DOMAIN) {
+                throw new IllegalStateException("All 8-digit account numbers have been allocated.");
+            }
+            return accountNumberBlockRepository.save(new AccountNumberBlock(end - blockSize, blockSize));
+        }));
+        nextCounter = block.getStartCounter();
+        blockEnd = nextCounter + blockSize;
+        bankingMetrics.accountNumberBlockReserved();
+        logger.info("Reserved account number block {} from counter {} ({} numbers).", block.getId(), nextCounter, blockSize);
+    }
+
+    // Balanced Feistel network over two base-10,000 halves: a bijection on 0..99,999,999.
+    long permute(long counter) {
+        long left = counter / HALF_DOMAIN;
+        long right = counter % HALF_DOMAIN;
+        for (long roundKey : roundKeys) {
+            long next = (left + Math.floorMod(mix(right ^ roundKey), HALF_DOMAIN)) % HALF_DOMAIN;
+            left = right;
+            right = next;
+        }
+        return left * HALF_DOMAIN + right;
+    }
+
+    // SplitMix64 finaliser.
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.accounts.AccountBalanceResponseDto;
 import com.example.demo.dto.accounts.AccountResponseDto;
 import com.example.demo.dto.accounts.CreateAccountRequestDto;
 import com.example.demo.dto.accounts.ListAccountsResponseDto;
@@ -8,22 +9,30 @@ import com.example.demo.exception.AccountHasNonZeroBalanceException;
 import com.example.demo.exception.AccountNotFoundException;
 import com.example.demo.exception.AccountOwnershipException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.ledger.LedgerEngine;
 import com.example.demo.model.Account;
-import com.example.demo.model.User;
+import com.example.demo.model.AccountSnapshot;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("banking.service")
 public class AccountService {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountService.class);
@@ -31,34 +40,44 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final SecurityService securityService;
-
-    public AccountService(AccountRepository accountRepository, UserRepository userRepository, SecurityService securityService) {
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final AccountCache accountCache;
+    private final AccountNumberAllocator accountNumberAllocator;
+    @Nullable
+    private final LedgerEngine ledgerEngine;
+
+    public AccountService(AccountRepository accountRepository, UserRepository userRepository, SecurityService securityService,
+                          BalanceCheckpointService balanceCheckpointService, AccountCache accountCache,
+                          AccountNumberAllocator accountNumberAllocator, ObjectProvider<LedgerEngine> ledgerEngine) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
         this.securityService = securityService;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.accountCache = accountCache;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
     }
 
 
     @Transactional
     public AccountResponseDto createAccount(CreateAccountRequestDto request) {
 
-        User currentUser = securityService.getCurrentAuthenticatedUser();
-
-        String newAccountNumber;
-        do {
-            newAccountNumber = generateUniqueAccountNumber();
-        } while (accountRepository.findByAccountNumber(newAccountNumber).isPresent());
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
 
         Account newAccount = new Account(
                 request.name(),
                 request.accountType(),
-                currentUser
+                userRepository.getReferenceById(currentUser.id())
         );
-        newAccount.setAccountNumber(newAccountNumber);
+        newAccount.setAccountNumber(accountNumberAllocator.nextAccountNumber());
         newAccount.setDeleted(false);
 
         Account savedAccount = accountRepository.save(newAccount);
-        logger.info("Account {} created successfully for user {}.", savedAccount.getAccountNumber(), currentUser.getEmail());
+        accountCache.evict(savedAccount.getAccountNumber(), currentUser.id());
+        logger.atInfo()
+                .addKeyValue("accountNumber", savedAccount.getAccountNumber())
+                .addKeyValue("userId", currentUser.id())
+                .log("Account created");
         return AccountResponseDto.fromEntity(savedAccount);
     }
 
@@ -69,23 +88,51 @@ public class AccountService {
             throw new IllegalArgumentException("Account number cannot be empty.");
         }
 
+        AccountSnapshot account = accountCache.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+
+        checkAccountOwnership(account.userId());
+        return AccountResponseDto.fromSnapshot(account);
+    }
+
+
+    @Transactional(readOnly = true)
+    public AccountBalanceResponseDto findBalanceAsOf(String accountNumber, @Nullable String asOf) {
+        if (accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be empty.");
+        }
+
+        LocalDateTime asOfTimestamp;
+        try {
+            asOfTimestamp = asOf == null || asOf.isBlank() ? LocalDateTime.now() : LocalDateTime.parse(asOf);
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid asOf format. Must be an ISO-8601 date-time, e.g. 2025-01-31T23:59:59.");
+        }
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
 
         checkAccountOwnership(account);
-        return AccountResponseDto.fromEntity(account);
+        if (asOfTimestamp.isBefore(account.getCreatedTimestamp())) {
+            throw new IllegalArgumentException("The bank account did not exist at " + asOfTimestamp + ".");
+        }
+
+        BigDecimal balance = balanceCheckpointService.balanceAsOf(account, asOfTimestamp);
+        return new AccountBalanceResponseDto(account.getAccountNumber(), balance, account.getCurrency(), asOfTimestamp);
     }
 
 
     @Transactional(readOnly = true)
     public ListAccountsResponseDto findAllAccountsForCurrentUser() {
-        User currentUser = securityService.getCurrentAuthenticatedUser();
-        List<Account> accounts = accountRepository.findByUserId(currentUser.getId());
-        List<AccountResponseDto> accountResponses = accounts.stream()
-                .map(AccountResponseDto::fromEntity)
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        List<AccountResponseDto> accountResponses = accountCache.findByUserId(currentUser.id()).stream()
+                .map(AccountResponseDto::fromSnapshot)
                 .collect(Collectors.toList());
 
-        logger.info("Found {} accounts for user {}.", accountResponses.size(), currentUser.getEmail());
+        logger.atInfo()
+                .addKeyValue("userId", currentUser.id())
+                .addKeyValue("count", accountResponses.size())
+                .log("Accounts listed");
         return new ListAccountsResponseDto(accountResponses);
     }
 
@@ -108,6 +155,7 @@ public class AccountService {
         }
 
         Account updatedAccount = accountRepository.save(existingAccount);
+        accountCache.evict(updatedAccount.getAccountNumber(), updatedAccount.getUser().getId());
         logger.info("Account {} updated successfully.", updatedAccount.getAccountNumber());
         return AccountResponseDto.fromEntity(updatedAccount);
     }
@@ -118,6 +166,15 @@ public class AccountService {
             throw new IllegalArgumentException("Account number cannot be empty.");
         }
 
+        // With the ledger journal on, the account's shard may have acknowledged transactions the database does not
+        // have yet. It is closed first, which it refuses until they are applied, so the balance read below is final.
+        if (ledgerEngine != null) {
+            AccountSnapshot snapshot = accountCache.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+            checkAccountOwnership(snapshot.userId());
+            ledgerEngine.close(snapshot);
+        }
+
         Account accountToDelete = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
 
@@ -131,20 +188,18 @@ public class AccountService {
         // Perform soft deletion - set the isDeleted flag to true
         accountToDelete.setDeleted(true);
         accountRepository.save(accountToDelete);
+        accountCache.evict(accountToDelete.getAccountNumber(), accountToDelete.getUser().getId());
 
         logger.info("Account {} deleted successfully.", accountNumber);
     }
 
 
-    private String generateUniqueAccountNumber() {
-        // Generate a random 8-digit number
-        // Using a simple approach
-        return String.format("%08d", (int) (Math.random() * 100_000_000));
+    private void checkAccountOwnership(Account account) {
+        checkAccountOwnership(account.getUser().getId());
     }
 
-    private void checkAccountOwnership(Account account) {
-        User currentUser = securityService.getCurrentAuthenticatedUser();
-        boolean isOwner = account.getUser().getId().equals(currentUser.getId());
+    private void checkAccountOwnership(Long ownerId) {
+        boolean isOwner = ownerId.equals(securityService.getCurrentUserId());
         if (!isOwner) {
             throw new AccountOwnershipException("The user is not allowed to access the bank account details.");
         }
@@ -1,5 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.security.AuthenticatedUserJwtConverter;
+import com.example.demo.security.BankUserDetails;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -12,6 +15,7 @@ import java.time.Instant;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("banking.service")
 public class AuthService {
 
     private final JwtEncoder jwtEncoder;
@@ -24,11 +28,17 @@ public class AuthService {
     }
 
     public String createToken(Authentication authentication) {
+        if (!(authentication.getPrincipal() instanceof BankUserDetails userDetails)) {
+            throw new IllegalStateException("Cannot issue a token for principal of type " + authentication.getPrincipal().getClass().getName());
+        }
+
         JwtClaimsSet claims = JwtClaimsSet.builder()
                 .issuer("self") // should be website address/domain if in prod
                 .issuedAt(Instant.now())
                 .expiresAt(Instant.now().plusMillis(jwtExpirationInMs))
                 .subject(authentication.getName()) // (username/email)
+                // The user's ID, so requests can be authorised without looking the user up by email
+                .claim(AuthenticatedUserJwtConverter.USER_ID_CLAIM, userDetails.getId())
                 // Add roles as a 'scope' claim, space-separated as per OAuth2 conventions
                 .claim("scope", authentication.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.model.Account;
+import com.example.demo.model.BalanceCheckpoint;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.BalanceCheckpointRepository;
+import com.example.demo.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class BalanceCheckpointService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final int checkpointInterval;
+
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+                                    TransactionRepository transactionRepository,
+                                    AccountRepository accountRepository,
+                                    @Value("${banking.balance-checkpoint.interval:100}") int checkpointInterval) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    // Must run in the transaction that applied latestTransaction, while it still holds the account row lock,
+    // so the balance read here is exactly the balance after latestTransaction.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(Account account, Transaction latestTransaction) {
+        List<BalanceCheckpoint> latest = balanceCheckpointRepository.findLatestByAccountId(account.getId(), Limit.of(1));
+        if (!latest.isEmpty() && !isCheckpointDue(account, latest.get(0), latestTransaction)) {
+            return;
+        }
+
+        BigDecimal balance = accountRepository.findBalanceById(account.getId())
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+        balanceCheckpointRepository.save(new BalanceCheckpoint(account, latestTransaction, balance));
+        logger.debug("Balance checkpoint written for account {} at transaction {}.", account.getId(), latestTransaction.getId());
+    }
+
+    // Starts from the nearest checkpoint on either side of asOf and applies only the transactions in between.
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAsOf(Account account, LocalDateTime asOf) {
+        List<BalanceCheckpoint> before = balanceCheckpointRepository.findLatestAtOrBefore(account.getId(), asOf, Limit.of(1));
+        if (!before.isEmpty()) {
+            BalanceCheckpoint checkpoint = before.get(0);
+            return checkpoint.getBalance().add(transactionRepository.sumNetAmountAfterUpTo(
+                    account.getId(), checkpoint.getTimestamp(), checkpoint.getTransactionId(), asOf));
+        }
+
+        List<BalanceCheckpoint> after = balanceCheckpointRepository.findEarliestAfter(account.getId(), asOf, Limit.of(1));
+        if (!after.isEmpty()) {
+            BalanceCheckpoint checkpoint = after.get(0);
+            return checkpoint.getBalance().subtract(transactionRepository.sumNetAmountAfterUpToTransaction(
+                    account.getId(), asOf, checkpoint.getTimestamp(), checkpoint.getTransactionId()));
+        }
+
+        return transactionRepository.findBalanceAsOf(account.getId(), asOf)
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+    }
+
+    private boolean isCheckpointDue(Account account, BalanceCheckpoint checkpoint, Transaction latestTransaction) {
+        if (checkpoint.getTimestamp().toLocalDate().isBefore(latestTransaction.getTimestamp().toLocalDate())) {
+            return true;
+        }
+        return transactionRepository.countByAccountIdAfter(
+                account.getId(), checkpoint.getTimestamp(), checkpoint.getTransactionId()) >= checkpointInterval;
+    }
+}
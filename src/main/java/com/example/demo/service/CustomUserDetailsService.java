@@ -2,14 +2,17 @@ package com.example.demo.service;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.BankUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -25,17 +28,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        logger.debug("Attempting to load user by email: {}", email);
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        logger.info("User {} found.", user.getEmail());
+        logger.atDebug().addKeyValue("userId", user.getId()).log("User loaded");
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .roles(getRolesArray(Optional.ofNullable(user.getRoles()).orElse("")))
-                .build();
+        List<SimpleGrantedAuthority> authorities = Arrays.stream(getRolesArray(Optional.ofNullable(user.getRoles()).orElse("")))
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        return new BankUserDetails(user.getId(), user.getEmail(), user.getPassword(), authorities);
     }
 
     private String[] getRolesArray(String roles) {
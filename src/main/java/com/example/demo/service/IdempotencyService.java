@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.exception.IdempotencyKeyReusedException;
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Makes transaction creation safe to retry. The first request with a given Idempotency-Key runs; concurrent
+// duplicates wait for its outcome and later duplicates get the stored response back without touching the
+// account. Recent outcomes live in a bounded in-memory cache, backed by the idempotency_keys table.
+@Service
+@Timed("banking.service")
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TransactionService transactionService;
+    private final SecurityService securityService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    public IdempotencyService(TransactionService transactionService,
+                              SecurityService securityService,
+                              IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionRepository transactionRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${banking.idempotency.cache-maximum-size:10000}") long cacheMaximumSize,
+                              @Value("${banking.idempotency.retention:24h}") Duration retention) {
+        this.transactionService = transactionService;
+        this.securityService = securityService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public TransactionResponseDto createTransactionOnce(String idempotencyKey, String accountNumber, CreateTransactionRequestDto request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        Long userId = securityService.getCurrentUserId();
+        String fingerprint = fingerprint(accountNumber, request);
+        String cacheKey = userId + ":" + idempotencyKey;
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(cacheKey, execution);
+        if (existing != null) {
+            logger.info("Replaying transaction for Idempotency-Key {} of user {}.", idempotencyKey, userId);
+            return matching(await(existing), fingerprint);
+        }
+
+        try {
+            StoredResponse stored = transactionTemplate.execute(status -> idempotencyRecordRepository
+                    .findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(record -> new StoredResponse(record.getRequestFingerprint(),
+                            TransactionResponseDto.fromEntity(record.getTransaction(), userId)))
+                    .orElseGet(() -> {
+                        TransactionResponseDto response = transactionService.createTransaction(accountNumber, request);
+                        idempotencyRecordRepository.save(new IdempotencyRecord(idempotencyKey, userId, fingerprint,
+                                transactionRepository.getReferenceById(response.id())));
+                        return new StoredResponse(fingerprint, response);
+                    }));
+            execution.complete(stored);
+            return matching(Optional.ofNullable(stored).orElseThrow(), fingerprint);
+        } catch (RuntimeException exception) {
+            // Failures are not remembered: the key stays usable for a retry once this attempt has finished.
+            responses.asMap().remove(cacheKey, execution);
+            execution.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval:1h}")
+    public void purgeExpiredRecords() {
+        int purged = Optional.ofNullable(transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention)))).orElse(0);
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys.", purged);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private TransactionResponseDto matching(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key has already been used with a different request.");
+        }
+        return stored.response();
+    }
+
+    private String fingerprint(String accountNumber, CreateTransactionRequestDto request) {
+        String canonical = String.join("|",
+                accountNumber,
+                request.amount().stripTrailingZeros().toPlainString(),
+                request.currency().toUpperCase(Locale.ROOT),
+                request.type().name(),
+                Optional.ofNullable(request.reference()).orElse(""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, TransactionResponseDto response) {
+    }
+}
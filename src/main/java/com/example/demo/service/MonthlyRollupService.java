@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.model.AccountMonthlyRollup;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.AccountMonthlyRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class MonthlyRollupService {
+
+    private final AccountMonthlyRollupRepository rollupRepository;
+
+    public MonthlyRollupService(AccountMonthlyRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    // Must run in the transaction that inserts the transactions, after it has locked the account row (every balance
+    // change does), so no other writer can insert the same month's row between the update and the insert here.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransactions(Long accountId, Collection<Transaction> transactions) {
+        Map<AccountMonthlyRollup.Key, AccountMonthlyRollup> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            AccountMonthlyRollup delta = deltas.computeIfAbsent(
+                    new AccountMonthlyRollup.Key(accountId, monthStart(transaction.getTimestamp()), transaction.getTransactionType()),
+                    key -> new AccountMonthlyRollup(accountId, key.getMonthStart(), key.getTransactionType(), 0, BigDecimal.ZERO));
+            delta.setTransactionCount(delta.getTransactionCount() + 1);
+            delta.setTotalAmount(delta.getTotalAmount().add(transaction.getAmount()));
+        }
+
+        deltas.values().forEach(delta -> {
+            if (rollupRepository.addToRollup(accountId, delta.getMonthStart(), delta.getTransactionType(),
+                    delta.getTransactionCount(), delta.getTotalAmount()) == 0) {
+                rollupRepository.insertRollup(accountId, delta.getMonthStart(), delta.getTransactionType(),
+                        delta.getTransactionCount(), delta.getTotalAmount());
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountMonthlyRollup> findRollups(Long accountId, YearMonth from, YearMonth to) {
+        return rollupRepository.findByAccountIdBetween(accountId, from.atDay(1), to.atDay(1));
+    }
+
+    public static LocalDate monthStart(LocalDateTime timestamp) {
+        return timestamp.toLocalDate().withDayOfMonth(1);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.service;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -20,17 +21,25 @@ public class SecurityService {
         this.userRepository = userRepository;
     }
 
-    public User getCurrentAuthenticatedUser() {
+    // The caller as described by their token. Enough for ownership checks, and costs no database access.
+    public AuthenticatedUser getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof AuthenticatedUser currentUser)) {
             logger.error("No authenticated user found in SecurityContext.");
             throw new IllegalStateException("No authenticated user found.");
         }
+        return currentUser;
+    }
 
-        String authenticatedUserEmail = authentication.getName();
+    public Long getCurrentUserId() {
+        return getCurrentUser().id();
+    }
 
-        return userRepository.findByEmail(authenticatedUserEmail)
+    // Loads the full User entity. Only for callers that need more than the user's ID.
+    public User getCurrentAuthenticatedUser() {
+        return userRepository.findById(getCurrentUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
     }
 }
@@ -0,0 +1,142 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.exception.AccountNotFoundException;
+import com.example.demo.exception.AccountOwnershipException;
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.model.Transaction;
+import com.example.demo.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Timed("banking.service")
+public class TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final String CSV_HEADER = "id,amount,currency,type,reference,userId,createdTimestamp";
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountCache accountCache;
+    private final SecurityService securityService;
+    private final EntityManager entityManager;
+    private final ObjectWriter transactionWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(TransactionRepository transactionRepository, AccountCache accountCache,
+                                    SecurityService securityService, EntityManager entityManager, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.accountCache = accountCache;
+        this.securityService = securityService;
+        this.entityManager = entityManager;
+        this.transactionWriter = objectMapper.writerFor(TransactionResponseDto.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Access is checked on the request thread; the returned body streams rows on the async response thread
+    // in its own read-only transaction, so nothing but the current row is held in memory.
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportTransactions(String accountNumber, ExportFormat format, boolean gzip) {
+        if (accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be empty.");
+        }
+
+        AccountSnapshot account = accountCache.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+
+        Long userId = securityService.getCurrentUserId();
+        if (!account.userId().equals(userId)) {
+            throw new AccountOwnershipException("The user is not allowed to access the transactions.");
+        }
+
+        Long accountId = account.id();
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            Long rows = readOnlyTransaction.execute(status -> writeRows(writer, accountId, userId, format));
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipOutputStream) {
+                gzipOutputStream.finish();
+            }
+            logger.info("Exported {} transactions for account {} as {}.", rows, accountNumber, format);
+        };
+    }
+
+    private long writeRows(Writer writer, Long accountId, Long userId, ExportFormat format) {
+        long rows = 0;
+        try (Stream<Transaction> transactions = transactionRepository.streamByAccountId(accountId)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                TransactionResponseDto row = TransactionResponseDto.fromEntity(transaction, userId);
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(transactionWriter.writeValueAsString(row));
+                }
+                writer.write('\n');
+                entityManager.detach(transaction);
+                rows++;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to write transaction export.", exception);
+        }
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, TransactionResponseDto row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(row.amount().toPlainString());
+        writer.write(',');
+        writer.write(row.currency());
+        writer.write(',');
+        writer.write(row.type().name());
+        writer.write(',');
+        writer.write(escapeCsv(row.reference()));
+        writer.write(',');
+        writer.write(String.valueOf(row.userId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.createdTimestamp()));
+    }
+
+    private String escapeCsv(@Nullable String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque continuation token for keyset pagination of a transaction history ordered by (timestamp, id).
+public record TransactionPageToken(LocalDateTime timestamp, Long transactionId) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TransactionPageToken after(Transaction transaction) {
+        return new TransactionPageToken(transaction.getTimestamp(), transaction.getId());
+    }
+
+    public static TransactionPageToken decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid page token.");
+            }
+            return new TransactionPageToken(
+                    LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid page token.");
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
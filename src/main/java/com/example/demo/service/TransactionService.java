@@ -1,109 +1,313 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.transactions.CreateTransactionBatchRequestDto;
 import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
 import com.example.demo.dto.transactions.ListTransactionsResponseDto;
+import com.example.demo.dto.transactions.MonthlySummaryDto;
+import com.example.demo.dto.transactions.MonthlySummaryResponseDto;
+import com.example.demo.dto.transactions.TransactionBatchItemResultDto;
+import com.example.demo.dto.transactions.TransactionBatchResponseDto;
 import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.dto.transactions.TransferResponseDto;
 import com.example.demo.enums.TransactionType;
 import com.example.demo.exception.AccountNotFoundException;
 import com.example.demo.exception.AccountOwnershipException;
 import com.example.demo.exception.InsufficientFundsException;
 import com.example.demo.exception.TransactionNotFoundException;
+import com.example.demo.ledger.LedgerEngine;
+import com.example.demo.metrics.BankingMetrics;
 import com.example.demo.model.Account;
+import com.example.demo.model.AccountMonthlyRollup;
+import com.example.demo.model.AccountSnapshot;
 import com.example.demo.model.Transaction;
-import com.example.demo.model.User;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.TransactionRepository;
+import com.example.demo.security.AuthenticatedUser;
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("banking.service")
 public class TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final SecurityService securityService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final AccountCache accountCache;
+    private final BankingMetrics bankingMetrics;
+    private final TransactionTemplate transactionTemplate;
+    @Nullable
+    private final LedgerEngine ledgerEngine;
 
-    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository, SecurityService securityService) {
+    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository, SecurityService securityService,
+                              BalanceCheckpointService balanceCheckpointService, MonthlyRollupService monthlyRollupService,
+                              AccountCache accountCache, BankingMetrics bankingMetrics,
+                              PlatformTransactionManager transactionManager, ObjectProvider<LedgerEngine> ledgerEngine) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.securityService = securityService;
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.accountCache = accountCache;
+        this.bankingMetrics = bankingMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
     }
 
-    @Transactional
+    // With the ledger engine enabled the write goes through its shard. A caller that is already in a transaction
+    // (an Idempotency-Key request stores its record in the same one) is applied directly, as it is without the
+    // engine, so that the transaction commits or rolls back with everything else the caller writes.
     public TransactionResponseDto createTransaction(String accountNumber, CreateTransactionRequestDto request) {
         if (accountNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("Account number cannot be empty.");
         }
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        AccountSnapshot snapshot = accountCache.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
 
-        User currentUser = securityService.getCurrentAuthenticatedUser();
-        if (!account.getUser().getId().equals(currentUser.getId())) {
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        if (!snapshot.userId().equals(currentUser.id())) {
             throw new AccountOwnershipException("The user is not allowed to access the bank account details.");
         }
 
-        if (!account.getCurrency().equalsIgnoreCase(request.currency())) {
-            throw new IllegalArgumentException("Transaction currency must match account currency (" + account.getCurrency() + ").");
+        if (!snapshot.currency().equalsIgnoreCase(request.currency())) {
+            throw new IllegalArgumentException("Transaction currency must match account currency (" + snapshot.currency() + ").");
+        }
+
+        if (request.type() != TransactionType.DEPOSIT && request.type() != TransactionType.WITHDRAWAL) {
+            throw new IllegalArgumentException("Invalid transaction type: " + request.type());
         }
 
-        BigDecimal newBalance;
-        if (request.type() == TransactionType.DEPOSIT) {
-            newBalance = account.getBalance().add(request.amount());
-        } else if (request.type() == TransactionType.WITHDRAWAL) {
-            if (account.getBalance().compareTo(request.amount()) < 0) {
-                throw new InsufficientFundsException("Insufficient funds to process transaction. Current balance: " + account.getBalance());
+        String reference = Optional.ofNullable(request.reference()).orElse("");
+        Transaction savedTransaction = ledgerEngine != null && !TransactionSynchronizationManager.isActualTransactionActive()
+                ? ledgerEngine.apply(snapshot, request.type(), request.amount(), reference)
+                : Optional.ofNullable(transactionTemplate.execute(status -> applyTransaction(snapshot, request.type(), request.amount(), reference)))
+                        .orElseThrow();
+        logger.atInfo()
+                .addKeyValue("transactionId", savedTransaction.getId())
+                .addKeyValue("accountNumber", accountNumber)
+                .addKeyValue("type", savedTransaction.getTransactionType())
+                .addKeyValue("amount", savedTransaction.getAmount())
+                .addKeyValue("userId", currentUser.id())
+                .log("Transaction created");
+        return TransactionResponseDto.fromEntity(savedTransaction, currentUser.id());
+    }
+
+    // Applies the items in order against one locked account row: ownership is checked once, the balance is
+    // written once and the transaction rows are inserted as a JDBC batch. Items that cannot be applied are
+    // reported individually rather than failing the whole batch. With the ledger journal on, the most the batch
+    // could take out of the account is held on the ledger before the row is locked, and if the ledger cannot vouch
+    // for that much the whole batch is refused.
+    @Transactional
+    public TransactionBatchResponseDto createTransactions(String accountNumber, CreateTransactionBatchRequestDto request) {
+        if (accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be empty.");
+        }
+
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        if (ledgerEngine != null) {
+            accountCache.findByAccountNumber(accountNumber)
+                    .filter(snapshot -> snapshot.userId().equals(currentUser.id()))
+                    .ifPresent(snapshot -> holdOnLedger(snapshot, largestDebit(snapshot.currency(), request.transactions())));
+        }
+
+        Account account = accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+
+        if (!account.getUser().getId().equals(currentUser.id())) {
+            throw new AccountOwnershipException("The user is not allowed to access the bank account details.");
+        }
+
+        List<CreateTransactionRequestDto> items = request.transactions();
+        TransactionBatchItemResultDto[] results = new TransactionBatchItemResultDto[items.size()];
+        Map<Integer, Transaction> acceptedTransactions = new LinkedHashMap<>();
+        BigDecimal balance = account.getBalance();
+
+        for (int index = 0; index < items.size(); index++) {
+            CreateTransactionRequestDto item = items.get(index);
+            if (!account.getCurrency().equalsIgnoreCase(item.currency())) {
+                results[index] = TransactionBatchItemResultDto.rejected(index,
+                        "Transaction currency must match account currency (" + account.getCurrency() + ").");
+                continue;
+            }
+
+            if (item.type() == TransactionType.DEPOSIT) {
+                balance = balance.add(item.amount());
+            } else if (item.type() == TransactionType.WITHDRAWAL) {
+                if (balance.compareTo(item.amount()) < 0) {
+                    bankingMetrics.insufficientFunds();
+                    results[index] = TransactionBatchItemResultDto.rejected(index,
+                            "Insufficient funds to process transaction. Current balance: " + balance);
+                    continue;
+                }
+                balance = balance.subtract(item.amount());
+            } else {
+                results[index] = TransactionBatchItemResultDto.rejected(index, "Invalid transaction type: " + item.type());
+                continue;
             }
-            newBalance = account.getBalance().subtract(request.amount());
+
+            acceptedTransactions.put(index, new Transaction(
+                    account,
+                    item.amount(),
+                    item.type(),
+                    Optional.ofNullable(item.reference()).orElse("")
+            ));
+        }
+
+        if (!acceptedTransactions.isEmpty()) {
+            account.setBalance(balance);
+            accountCache.evict(account.getAccountNumber(), currentUser.id());
+            List<Transaction> savedTransactions = transactionRepository.saveAll(acceptedTransactions.values());
+            balanceCheckpointService.recordTransaction(account, savedTransactions.get(savedTransactions.size() - 1));
+            monthlyRollupService.recordTransactions(account.getId(), savedTransactions);
+            savedTransactions.forEach(transaction -> bankingMetrics.transactionApplied(transaction.getTransactionType(), transaction.getAmount()));
+        }
+        acceptedTransactions.forEach((index, transaction) ->
+                results[index] = TransactionBatchItemResultDto.created(index, TransactionResponseDto.fromEntity(transaction, currentUser.id())));
+
+        int rejected = items.size() - acceptedTransactions.size();
+        logger.atInfo()
+                .addKeyValue("accountNumber", accountNumber)
+                .addKeyValue("created", acceptedTransactions.size())
+                .addKeyValue("rejected", rejected)
+                .addKeyValue("userId", currentUser.id())
+                .log("Transaction batch processed");
+        return new TransactionBatchResponseDto(acceptedTransactions.size(), rejected, List.of(results));
+    }
+
+    // Moves money from one of the caller's accounts to any live account in one database transaction, recorded as a
+    // withdrawal and a deposit that share a transfer reference. Like batches, transfers are written to the database
+    // directly, also with the ledger engine enabled.
+    @Transactional
+    public TransferResponseDto createTransfer(String accountNumber, CreateTransferRequestDto request) {
+        if (accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be empty.");
+        }
+        if (accountNumber.equals(request.destinationAccountNumber())) {
+            throw new IllegalArgumentException("Cannot transfer to the same bank account.");
+        }
+
+        AccountSnapshot source = accountCache.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        if (!source.userId().equals(currentUser.id())) {
+            throw new AccountOwnershipException("The user is not allowed to access the bank account details.");
+        }
+
+        AccountSnapshot destination = accountCache.findByAccountNumber(request.destinationAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException("Destination bank account was not found."));
+
+        if (!source.currency().equalsIgnoreCase(request.currency()) || !destination.currency().equalsIgnoreCase(request.currency())) {
+            throw new IllegalArgumentException("Transfer currency must match the currency of both accounts.");
+        }
+
+        holdOnLedger(source, request.amount());
+
+        // Each balance UPDATE locks its row until commit. They are issued lowest account id first, whichever way the
+        // money moves, so two transfers in opposite directions between the same accounts cannot each hold the lock
+        // the other is waiting for. A failed debit after the credit rolls the credit back with the transaction.
+        LocalDateTime now = LocalDateTime.now();
+        if (source.id() < destination.id()) {
+            debitForTransfer(source, request.amount(), now);
+            creditForTransfer(destination, request.amount(), now);
         } else {
-            throw new IllegalArgumentException("Invalid transaction type: " + request.type());
+            creditForTransfer(destination, request.amount(), now);
+            debitForTransfer(source, request.amount(), now);
         }
+        accountCache.evict(source.accountNumber(), source.userId());
+        accountCache.evict(destination.accountNumber(), destination.userId());
 
-        account.setBalance(newBalance);
-        accountRepository.save(account);
+        String transferReference = UUID.randomUUID().toString();
+        String reference = Optional.ofNullable(request.reference()).orElse("");
+        Account debited = accountRepository.getReferenceById(source.id());
+        Account credited = accountRepository.getReferenceById(destination.id());
+        Transaction debit = new Transaction(debited, source.currency(), request.amount(), TransactionType.WITHDRAWAL, reference);
+        Transaction credit = new Transaction(credited, destination.currency(), request.amount(), TransactionType.DEPOSIT, reference);
+        debit.setTransferReference(transferReference);
+        credit.setTransferReference(transferReference);
+        transactionRepository.saveAll(List.of(debit, credit));
+        balanceCheckpointService.recordTransaction(debited, debit);
+        balanceCheckpointService.recordTransaction(credited, credit);
+        monthlyRollupService.recordTransactions(source.id(), List.of(debit));
+        monthlyRollupService.recordTransactions(destination.id(), List.of(credit));
+        bankingMetrics.transactionApplied(debit.getTransactionType(), debit.getAmount());
+        bankingMetrics.transactionApplied(credit.getTransactionType(), credit.getAmount());
 
-        Transaction newTransaction = new Transaction(
-                account,
-                request.amount(),
-                request.type(),
-                Optional.ofNullable(request.reference()).orElse("")
-        );
-        Transaction savedTransaction = transactionRepository.save(newTransaction);
-        logger.info("Transaction (Type: {}, Amount: {}) created for account {} by user {}. Transaction ID: {}",
-                savedTransaction.getTransactionType(), savedTransaction.getAmount(), accountNumber, currentUser.getEmail(), savedTransaction.getId());
-        return TransactionResponseDto.fromEntity(savedTransaction, currentUser.getId());
+        logger.atInfo()
+                .addKeyValue("transferReference", transferReference)
+                .addKeyValue("sourceAccountNumber", accountNumber)
+                .addKeyValue("destinationAccountNumber", request.destinationAccountNumber())
+                .addKeyValue("amount", request.amount())
+                .addKeyValue("userId", currentUser.id())
+                .log("Transfer created");
+        return new TransferResponseDto(transferReference, accountNumber, request.destinationAccountNumber(),
+                TransactionResponseDto.fromEntity(debit, currentUser.id()));
     }
 
     @Transactional(readOnly = true)
-    public ListTransactionsResponseDto getTransactionsByAccountNumber(String accountNumber) {
+    public ListTransactionsResponseDto getTransactionsByAccountNumber(String accountNumber, @Nullable Integer pageSize, @Nullable String pageToken) {
         if (accountNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("Account number cannot be empty.");
         }
+        int limit = Optional.ofNullable(pageSize).orElse(DEFAULT_PAGE_SIZE);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        TransactionPageToken cursor = pageToken == null || pageToken.isBlank() ? null : TransactionPageToken.decode(pageToken);
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        AccountSnapshot account = accountCache.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
 
-        User currentUser = securityService.getCurrentAuthenticatedUser();
-        if (!account.getUser().getId().equals(currentUser.getId())) {
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        if (!account.userId().equals(currentUser.id())) {
             throw new AccountOwnershipException("The user is not allowed to access the transactions.");
         }
 
-        List<Transaction> transactions = transactionRepository.findByAccountId(account.getId());
+        // One extra row tells us whether another page follows without a separate count query.
+        List<Transaction> transactions = cursor == null
+                ? transactionRepository.findFirstPageByAccountId(account.id(), Limit.of(limit + 1))
+                : transactionRepository.findPageByAccountIdAfter(account.id(), cursor.timestamp(), cursor.transactionId(), Limit.of(limit + 1));
+        boolean hasNextPage = transactions.size() > limit;
         List<TransactionResponseDto> transactionResponses = transactions.stream()
-                .map(t -> TransactionResponseDto.fromEntity(t, currentUser.getId()))
+                .limit(limit)
+                .map(t -> TransactionResponseDto.fromEntity(t, currentUser.id()))
                 .collect(Collectors.toList());
+        String nextPageToken = hasNextPage ? TransactionPageToken.after(transactions.get(limit - 1)).encode() : null;
 
-        logger.info("Found {} transactions for account {}.", transactionResponses.size(), accountNumber);
-        return new ListTransactionsResponseDto(transactionResponses);
+        logger.atInfo()
+                .addKeyValue("accountNumber", accountNumber)
+                .addKeyValue("count", transactionResponses.size())
+                .log("Transactions listed");
+        return new ListTransactionsResponseDto(transactionResponses, nextPageToken);
     }
 
     @Transactional(readOnly = true)
@@ -122,18 +326,118 @@ public class TransactionService {
             throw new IllegalArgumentException("Invalid transaction ID format. Must be a valid number.");
         }
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        AccountSnapshot account = accountCache.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
 
-        User currentUser = securityService.getCurrentAuthenticatedUser();
-        if (!account.getUser().getId().equals(currentUser.getId())) {
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        if (!account.userId().equals(currentUser.id())) {
             throw new AccountOwnershipException("The user is not allowed to access the transaction.");
         }
 
-        Transaction transaction = transactionRepository.findByIdAndAccountId(numericTransactionId, account.getId())
+        Transaction transaction = transactionRepository.findByIdAndAccountId(numericTransactionId, account.id())
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found with id: " + transactionId + " for account: " + accountNumber));
 
-        return TransactionResponseDto.fromEntity(transaction, currentUser.getId());
+        return TransactionResponseDto.fromEntity(transaction, currentUser.id());
     }
-}
 
+    // Reads only the account's monthly rollups, one row per month and transaction type, however many transactions
+    // the account has. Defaults to the twelve months up to and including the current one.
+    @Transactional(readOnly = true)
+    public MonthlySummaryResponseDto getMonthlySummary(String accountNumber, @Nullable String from, @Nullable String to) {
+        if (accountNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account number cannot be empty.");
+        }
+
+        YearMonth toMonth;
+        YearMonth fromMonth;
+        try {
+            toMonth = to == null || to.isBlank() ? YearMonth.now() : YearMonth.parse(to);
+            fromMonth = from == null || from.isBlank() ? toMonth.minusMonths(11) : YearMonth.parse(from);
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid month format. Must be an ISO-8601 year and month, e.g. 2025-01.");
+        }
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("The from month must not be after the to month.");
+        }
+
+        AccountSnapshot account = accountCache.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+
+        AuthenticatedUser currentUser = securityService.getCurrentUser();
+        if (!account.userId().equals(currentUser.id())) {
+            throw new AccountOwnershipException("The user is not allowed to access the transactions.");
+        }
+
+        Map<YearMonth, MonthlySummaryDto> months = new LinkedHashMap<>();
+        for (AccountMonthlyRollup rollup : monthlyRollupService.findRollups(account.id(), fromMonth, toMonth)) {
+            YearMonth month = YearMonth.from(rollup.getMonthStart());
+            MonthlySummaryDto summary = months.getOrDefault(month, MonthlySummaryDto.empty(month));
+            months.put(month, summary.with(rollup.getTransactionType(), rollup.getTransactionCount(), rollup.getTotalAmount()));
+        }
+
+        logger.atInfo()
+                .addKeyValue("accountNumber", accountNumber)
+                .addKeyValue("months", months.size())
+                .log("Monthly summary listed");
+        return new MonthlySummaryResponseDto(accountNumber, account.currency(), fromMonth, toMonth, List.copyOf(months.values()));
+    }
+
+    // With the ledger journal on, a shard acknowledges withdrawals before the database has them, so money leaving an
+    // account by any other path is first held on the account's shard until this transaction completes.
+    private void holdOnLedger(AccountSnapshot account, BigDecimal amount) {
+        if (ledgerEngine != null && amount.signum() > 0) {
+            ledgerEngine.hold(account, amount);
+        }
+    }
+
+    // Every deposit in a batch is applied, so its withdrawals less its deposits bounds what it can debit.
+    private static BigDecimal largestDebit(String currency, List<CreateTransactionRequestDto> items) {
+        return items.stream()
+                .filter(item -> currency.equalsIgnoreCase(item.currency()))
+                .map(item -> switch (item.type()) {
+                    case WITHDRAWAL -> item.amount();
+                    case DEPOSIT -> item.amount().negate();
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private void debitForTransfer(AccountSnapshot account, BigDecimal amount, LocalDateTime now) {
+        if (accountRepository.debitBalance(account.id(), amount, now) == 0) {
+            BigDecimal currentBalance = accountRepository.findBalanceById(account.id())
+                    .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+            bankingMetrics.insufficientFunds();
+            throw new InsufficientFundsException("Insufficient funds to process transfer. Current balance: " + currentBalance);
+        }
+    }
+
+    private void creditForTransfer(AccountSnapshot account, BigDecimal amount, LocalDateTime now) {
+        if (accountRepository.creditBalance(account.id(), amount, now) == 0) {
+            throw new AccountNotFoundException("Destination bank account was not found.");
+        }
+    }
+
+    private Transaction applyTransaction(AccountSnapshot snapshot, TransactionType type, BigDecimal amount, String reference) {
+        LocalDateTime now = LocalDateTime.now();
+        if (type == TransactionType.DEPOSIT) {
+            if (accountRepository.creditBalance(snapshot.id(), amount, now) == 0) {
+                throw new AccountNotFoundException("Bank account was not found.");
+            }
+        } else {
+            holdOnLedger(snapshot, amount);
+            if (accountRepository.debitBalance(snapshot.id(), amount, now) == 0) {
+                BigDecimal currentBalance = accountRepository.findBalanceById(snapshot.id())
+                        .orElseThrow(() -> new AccountNotFoundException("Bank account was not found."));
+                bankingMetrics.insufficientFunds();
+                throw new InsufficientFundsException("Insufficient funds to process transaction. Current balance: " + currentBalance);
+            }
+        }
+        accountCache.evict(snapshot.accountNumber(), snapshot.userId());
+
+        Account account = accountRepository.getReferenceById(snapshot.id());
+        Transaction savedTransaction = transactionRepository.save(new Transaction(account, snapshot.currency(), amount, type, reference));
+        balanceCheckpointService.recordTransaction(account, savedTransaction);
+        monthlyRollupService.recordTransactions(snapshot.id(), List.of(savedTransaction));
+        bankingMetrics.transactionApplied(savedTransaction.getTransactionType(), savedTransaction.getAmount());
+        return savedTransaction;
+    }
+}
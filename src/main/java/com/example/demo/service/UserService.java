@@ -9,6 +9,7 @@ import com.example.demo.exception.UserHasAccountException;
 import com.example.demo.model.User;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("banking.service")
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
@@ -33,7 +35,8 @@ public class UserService {
         this.securityService = securityService;
     }
 
-    @Transactional
+    // Not one transaction: the password is hashed without holding a database connection, and a concurrent
+    // registration of the same email is still refused by the unique constraint when the user is saved.
     public UserResponseDto registerNewUser(CreateUserRequestDto createUserRequestDto) {
 
         if (userRepository.findByEmail(createUserRequestDto.email()).isPresent()) {
@@ -54,8 +57,7 @@ public class UserService {
         User foundUser = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        User currentAuthenticatedUser = securityService.getCurrentAuthenticatedUser();
-        if (!foundUser.getId().equals(currentAuthenticatedUser.getId())) {
+        if (!foundUser.getId().equals(securityService.getCurrentUserId())) {
             throw new AccessDeniedException("You do not have permission to access another user's details.");
         }
 
@@ -68,8 +70,7 @@ public class UserService {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        User currentAuthenticatedUser = securityService.getCurrentAuthenticatedUser();
-        if (!existingUser.getId().equals(currentAuthenticatedUser.getId())) {
+        if (!existingUser.getId().equals(securityService.getCurrentUserId())) {
             throw new AccessDeniedException("You do not have permission to update another user's details.");
         }
 
@@ -103,8 +104,7 @@ public class UserService {
         User userToDelete = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        User currentAuthenticatedUser = securityService.getCurrentAuthenticatedUser();
-        if (!userToDelete.getId().equals(currentAuthenticatedUser.getId())) {
+        if (!userToDelete.getId().equals(securityService.getCurrentUserId())) {
             throw new AccessDeniedException("You do not have permission to delete another user.");
         }
 
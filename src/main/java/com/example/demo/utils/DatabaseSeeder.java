@@ -6,6 +6,7 @@ import com.example.demo.model.Address;
 import com.example.demo.model.User;
 import com.example.demo.repository.AccountRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccountNumberAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -23,13 +24,19 @@ public class DatabaseSeeder implements CommandLineRunner {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final SyntheticDataGenerator syntheticDataGenerator;
 
     public DatabaseSeeder(UserRepository userRepository,
                           AccountRepository accountRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          AccountNumberAllocator accountNumberAllocator,
+                          SyntheticDataGenerator syntheticDataGenerator) {
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.syntheticDataGenerator = syntheticDataGenerator;
     }
 
     @Override
@@ -37,7 +44,7 @@ public class DatabaseSeeder implements CommandLineRunner {
         logger.info("Seeding database with initial user and account data...");
 
         // 1. Create Users
-        Optional<User> existingAdmin = userRepository.findByEmail("admin@bank.com");
+        Optional<User> existingAdmin = userRepository.findByEmail("admin@email.com");
         User adminUser;
         if (existingAdmin.isEmpty()) {
             Address adminAddress = new Address("10 Admin Street", "Adminville", null, "Admin Town", "Admin County", "AD1 1AD");
@@ -68,13 +75,13 @@ public class DatabaseSeeder implements CommandLineRunner {
         // 2. Create Accounts for the seeded users
         if (accountRepository.findByUserId(adminUser.getId()).isEmpty()) {
             Account adminSavings = new Account("Admin Savings Account", AccountType.PERSONAL, adminUser);
-            adminSavings.setAccountNumber("01" + String.format("%06d", (int) (Math.random() * 1_000_000)));
+            adminSavings.setAccountNumber(accountNumberAllocator.nextAccountNumber());
             adminSavings.setBalance(new BigDecimal("10000.00"));
             accountRepository.save(adminSavings);
             logger.info("Created savings account {} for admin.", adminSavings.getAccountNumber());
 
             Account adminBusiness = new Account("Admin Business Account", AccountType.BUSINESS, adminUser);
-            adminBusiness.setAccountNumber("01" + String.format("%06d", (int) (Math.random() * 1_000_000)));
+            adminBusiness.setAccountNumber(accountNumberAllocator.nextAccountNumber());
             adminBusiness.setBalance(new BigDecimal("50000.00"));
             accountRepository.save(adminBusiness);
             logger.info("Created business account {} for admin.", adminBusiness.getAccountNumber());
@@ -82,6 +89,9 @@ public class DatabaseSeeder implements CommandLineRunner {
             logger.info("Admin user already has accounts.");
         }
 
+        // 3. Bulk synthetic data for performance testing, when banking.synthetic-data.users is set
+        syntheticDataGenerator.generate();
+
         logger.info("Database seeding complete.");
     };
 }
@@ -0,0 +1,129 @@
+package com.example.demo.utils;
+
+import com.example.demo.dto.AuthResponseDto;
+import com.example.demo.dto.LoginRequestDto;
+import com.example.demo.dto.accounts.AccountResponseDto;
+import com.example.demo.dto.accounts.CreateAccountRequestDto;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+// The training run for the fast-start build (mvn -Pfast-start package). Once the application is ready, and so
+// after DatabaseSeeder, it signs in as the seeded test user, calls the main endpoints once each and exits. The
+// JVM records every class loaded on the way into the class-data archive used for later starts.
+//
+// Switched on at runtime rather than with a bean condition, because AOT processing fixes bean conditions at build
+// time.
+@Component
+public class StartupTrainingRun {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTrainingRun.class);
+
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+    private final boolean enabled;
+
+    public StartupTrainingRun(ConfigurableApplicationContext context,
+                              Environment environment,
+                              @Value("${banking.training.enabled:false}") boolean enabled) {
+        this.context = context;
+        this.environment = environment;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void train() {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Starting training run");
+        int exitCode = 0;
+        try {
+            exerciseEndpoints(RestClient.builder()
+                    .baseUrl("http://localhost:" + environment.getRequiredProperty("local.server.port"))
+                    .build());
+            logger.info("Training run complete");
+        } catch (RuntimeException exception) {
+            logger.error("Training run failed", exception);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
+    private void exerciseEndpoints(RestClient client) {
+        AuthResponseDto auth = client.post().uri("/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new LoginRequestDto("testuser@email.com", "password123"))
+                .retrieve()
+                .body(AuthResponseDto.class);
+        RestClient authorised = client.mutate()
+                .defaultHeader("Authorization", "Bearer " + Objects.requireNonNull(auth).jwt())
+                .build();
+
+        String source = createAccount(authorised, "Training Current Account");
+        String destination = createAccount(authorised, "Training Savings Account");
+        createTransaction(authorised, source, TransactionType.DEPOSIT, "250.00");
+        createTransaction(authorised, source, TransactionType.WITHDRAWAL, "20.00");
+        authorised.post().uri("/v1/accounts/{accountNumber}/transfers", source)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new CreateTransferRequestDto(destination, new BigDecimal("30.00"), "GBP", "training"))
+                .retrieve()
+                .toBodilessEntity();
+
+        authorised.get().uri("/v1/accounts").retrieve().toBodilessEntity();
+        authorised.get().uri("/v1/accounts/{accountNumber}", source).retrieve().toBodilessEntity();
+        authorised.get().uri("/v1/accounts/{accountNumber}/balance", source).retrieve().toBodilessEntity();
+        authorised.get().uri("/v1/accounts/{accountNumber}/transactions", source).retrieve().toBodilessEntity();
+        authorised.get().uri("/v1/accounts/{accountNumber}/transactions/export", source).retrieve().toBodilessEntity();
+
+        // The error paths through GlobalExceptionHandler.
+        authorised.get().uri("/v1/accounts/{accountNumber}", "00000000")
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> { })
+                .toBodilessEntity();
+        authorised.post().uri("/v1/accounts/{accountNumber}/transactions", source)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new CreateTransactionRequestDto(new BigDecimal("-1"), "GBP", TransactionType.DEPOSIT, null))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> { })
+                .toBodilessEntity();
+
+        client.get().uri("/openapi").retrieve().toBodilessEntity();
+        client.get().uri("/actuator/health").retrieve().toBodilessEntity();
+        client.get().uri("/actuator/prometheus").retrieve().toBodilessEntity();
+    }
+
+    private static String createAccount(RestClient client, String name) {
+        AccountResponseDto account = client.post().uri("/v1/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new CreateAccountRequestDto(name, AccountType.PERSONAL))
+                .retrieve()
+                .body(AccountResponseDto.class);
+        return Objects.requireNonNull(account).accountNumber();
+    }
+
+    private static void createTransaction(RestClient client, String accountNumber, TransactionType type, String amount) {
+        client.post().uri("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new CreateTransactionRequestDto(new BigDecimal(amount), "GBP", type, "training"))
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
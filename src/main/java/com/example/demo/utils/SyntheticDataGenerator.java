@@ -0,0 +1,376 @@
+package com.example.demo.utils;
+
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.AccountMonthlyRollup;
+import com.example.demo.service.AccountNumberAllocator;
+import com.example.demo.service.MonthlyRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fills the database with synthetic users, accounts and transactions for performance testing, off unless
+// banking.synthetic-data.users is set. Every user's data comes from a random stream derived from the seed and the
+// user's index, so the same settings always produce the same dataset, however the work is split across workers.
+// Only database ids and account numbers differ between runs, and timestamps are relative to the day of the run.
+//
+// Transactions per account follow a Pareto distribution, so most accounts are quiet and a few are very busy, and a
+// small share of business accounts get many times more on top. Amounts are log-normal. Withdrawals never take an
+// account below zero, and each account's balance is the sum of its transactions.
+@Component
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // Must match the allocationSize of account_transactions_seq on Transaction.
+    private static final int TRANSACTION_ID_BLOCK = 50;
+    private static final double PARETO_SHAPE = 1.5;
+    private static final int USERS_PER_TASK = 100;
+    private static final String PASSWORD = "password123";
+    private static final String EMAIL_DOMAIN = "@synthetic.example";
+    private static final String[] FIRST_NAMES = {"Olivia", "Amelia", "Isla", "Ava", "Mia", "Noah", "Oliver", "George", "Leo", "Arthur", "Priya", "Mohammed", "Chen", "Sofia", "Kwame"};
+    private static final String[] LAST_NAMES = {"Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Johnson", "Davies", "Patel", "Khan", "Evans", "Thomas", "Roberts", "Walker", "Wright"};
+    private static final String[] TOWNS = {"London", "Manchester", "Birmingham", "Leeds", "Glasgow", "Bristol", "Cardiff", "Belfast", "Norwich", "York"};
+    private static final String[] DEPOSIT_DESCRIPTIONS = {"Salary", "Transfer in", "Refund", "Cash deposit", "Invoice payment"};
+    private static final String[] WITHDRAWAL_DESCRIPTIONS = {"Card payment", "Direct debit", "Cash withdrawal", "Standing order", "Online purchase"};
+
+    private static final String INSERT_USER = "INSERT INTO users (email, password, roles, name, line1, line2, line3, town, county, postcode, "
+            + "phone_number, created_timestamp, updated_timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ACCOUNT = "INSERT INTO bank_accounts (account_number, sort_code, name, account_type, balance, currency, "
+            + "created_timestamp, updated_timestamp, is_deleted, version, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, FALSE, 0, ?)";
+    private static final String INSERT_TRANSACTION = "INSERT INTO account_transactions "
+            + "(id, account_id, amount, currency, transaction_type, description, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ROLLUP = "INSERT INTO account_monthly_rollups "
+            + "(account_id, month_start, transaction_type, transaction_count, total_amount) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final PasswordEncoder passwordEncoder;
+    private final Settings settings;
+    private final int workers;
+    private final int batchSize;
+    private long nextTransactionId;
+    private long lastTransactionId = -1;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  AccountNumberAllocator accountNumberAllocator,
+                                  PasswordEncoder passwordEncoder,
+                                  @Value("${banking.synthetic-data.users:0}") int users,
+                                  @Value("${banking.synthetic-data.seed:42}") long seed,
+                                  @Value("${banking.synthetic-data.mean-transactions-per-account:50}") int meanTransactionsPerAccount,
+                                  @Value("${banking.synthetic-data.hot-account-ratio:0.001}") double hotAccountRatio,
+                                  @Value("${banking.synthetic-data.hot-account-multiplier:100}") int hotAccountMultiplier,
+                                  @Value("${banking.synthetic-data.history-days:365}") int historyDays,
+                                  @Value("${banking.synthetic-data.workers:4}") int workers,
+                                  @Value("${banking.synthetic-data.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.passwordEncoder = passwordEncoder;
+        this.settings = new Settings(users, seed, meanTransactionsPerAccount, hotAccountRatio, hotAccountMultiplier, historyDays);
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("banking.synthetic-data.workers and batch-size must be positive");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    public void generate() throws InterruptedException {
+        if (settings.users() <= 0) {
+            return;
+        }
+        // A database that outlives the process (the durable profile) keeps the dataset from the first start.
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            logger.atInfo().addKeyValue("users", existing).log("Synthetic data already present, not generating");
+            return;
+        }
+        logger.atInfo()
+                .addKeyValue("users", settings.users())
+                .addKeyValue("seed", settings.seed())
+                .addKeyValue("workers", workers)
+                .log("Generating synthetic data");
+        long started = System.nanoTime();
+        // Hashed once: every synthetic user signs in with the same password.
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        LocalDateTime until = LocalDate.now().atStartOfDay();
+
+        AtomicLong accounts = new AtomicLong();
+        AtomicLong transactions = new AtomicLong();
+        List<Future<?>> tasks = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (int from = 0; from < settings.users(); from += USERS_PER_TASK) {
+                int firstUser = from;
+                int lastUser = Math.min(from + USERS_PER_TASK, settings.users());
+                tasks.add(executor.submit(() -> {
+                    List<SyntheticUser> users = new ArrayList<>();
+                    for (int index = firstUser; index < lastUser; index++) {
+                        users.add(user(settings, index, until));
+                    }
+                    transactionTemplate.executeWithoutResult(status -> insert(users, passwordHash));
+                    users.forEach(user -> {
+                        accounts.addAndGet(user.accounts().size());
+                        user.accounts().forEach(account -> transactions.addAndGet(account.transactions().size()));
+                    });
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Synthetic data generation failed", exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.atInfo()
+                .addKeyValue("users", settings.users())
+                .addKeyValue("accounts", accounts.get())
+                .addKeyValue("transactions", transactions.get())
+                .addKeyValue("elapsedMs", Duration.ofNanos(System.nanoTime() - started).toMillis())
+                .log("Synthetic data generated");
+    }
+
+    private void insert(List<SyntheticUser> users, String passwordHash) {
+        List<Long> userIds = insertReturningIds(INSERT_USER, users.size(), (statement, i) -> {
+            SyntheticUser user = users.get(i);
+            statement.setString(1, user.email());
+            statement.setString(2, passwordHash);
+            statement.setString(3, "USER");
+            statement.setString(4, user.name());
+            statement.setString(5, user.line1());
+            statement.setString(6, null);
+            statement.setString(7, null);
+            statement.setString(8, user.town());
+            statement.setString(9, user.town());
+            statement.setString(10, user.postcode());
+            statement.setString(11, user.phoneNumber());
+            statement.setTimestamp(12, Timestamp.valueOf(user.createdTimestamp()));
+            statement.setTimestamp(13, Timestamp.valueOf(user.createdTimestamp()));
+        });
+
+        List<SyntheticAccount> accounts = new ArrayList<>();
+        List<Long> accountUserIds = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            for (SyntheticAccount account : users.get(i).accounts()) {
+                accounts.add(account);
+                accountUserIds.add(userIds.get(i));
+            }
+        }
+        List<String> accountNumbers = accounts.stream().map(account -> accountNumberAllocator.nextAccountNumber()).toList();
+        List<Long> accountIds = insertReturningIds(INSERT_ACCOUNT, accounts.size(), (statement, i) -> {
+            SyntheticAccount account = accounts.get(i);
+            statement.setString(1, accountNumbers.get(i));
+            statement.setString(2, "10-10-10");
+            statement.setString(3, account.name());
+            statement.setString(4, account.type().name());
+            statement.setBigDecimal(5, account.balance());
+            statement.setString(6, "GBP");
+            statement.setTimestamp(7, Timestamp.valueOf(account.createdTimestamp()));
+            statement.setTimestamp(8, Timestamp.valueOf(account.updatedTimestamp()));
+            statement.setLong(9, accountUserIds.get(i));
+        });
+
+        // The accounts are new, so their monthly rollups are counted here and inserted outright rather than through
+        // MonthlyRollupService.
+        Map<AccountMonthlyRollup.Key, AccountMonthlyRollup> rollups = new LinkedHashMap<>();
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < accounts.size(); i++) {
+            Long accountId = accountIds.get(i);
+            for (SyntheticTransaction transaction : accounts.get(i).transactions()) {
+                rows.add(new Object[]{nextTransactionId(), accountId, transaction.amount(), "GBP",
+                        transaction.type().name(), transaction.description(), Timestamp.valueOf(transaction.timestamp())});
+                if (rows.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+                    rows.clear();
+                }
+
+                LocalDate monthStart = MonthlyRollupService.monthStart(transaction.timestamp());
+                AccountMonthlyRollup rollup = rollups.computeIfAbsent(new AccountMonthlyRollup.Key(accountId, monthStart, transaction.type()),
+                        key -> new AccountMonthlyRollup(accountId, monthStart, transaction.type(), 0, BigDecimal.ZERO));
+                rollup.setTransactionCount(rollup.getTransactionCount() + 1);
+                rollup.setTotalAmount(rollup.getTotalAmount().add(transaction.amount()));
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+        }
+
+        List<Object[]> rollupRows = rollups.values().stream()
+                .map(rollup -> new Object[]{rollup.getAccountId(), rollup.getMonthStart(), rollup.getTransactionType().name(),
+                        rollup.getTransactionCount(), rollup.getTotalAmount()})
+                .toList();
+        for (int from = 0; from < rollupRows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP, rollupRows.subList(from, Math.min(from + batchSize, rollupRows.size())));
+        }
+    }
+
+    private List<Long> insertReturningIds(String sql, int rows, RowSetter setter) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        setter.set(statement, i);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows;
+                    }
+                }, keys);
+        return keys.getKeyList().stream().map(key -> ((Number) key.values().iterator().next()).longValue()).toList();
+    }
+
+    // Ids are taken in blocks from the sequence Hibernate uses for transactions, as JournalApplier does, so they
+    // never collide with transactions created through the application.
+    private synchronized long nextTransactionId() {
+        if (nextTransactionId > lastTransactionId) {
+            long value = nextSequenceValue();
+            if (value < TRANSACTION_ID_BLOCK) {
+                value = nextSequenceValue();
+            }
+            nextTransactionId = value - TRANSACTION_ID_BLOCK + 1;
+            lastTransactionId = value;
+        }
+        return nextTransactionId++;
+    }
+
+    private long nextSequenceValue() {
+        Long value = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR account_transactions_seq", Long.class);
+        if (value == null) {
+            throw new IllegalStateException("account_transactions_seq returned no value");
+        }
+        return value;
+    }
+
+    // Everything about one user, drawn only from the seed and the user's index.
+    static SyntheticUser user(Settings settings, int index, LocalDateTime until) {
+        SplittableRandom random = new SplittableRandom(settings.seed() * 0x9E3779B97F4A7C15L + index);
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+        LocalDateTime createdTimestamp = until.minusSeconds(random.nextLong(Duration.ofDays(settings.historyDays()).toSeconds()));
+
+        // Mostly one or two accounts, occasionally more.
+        int accountCount = Math.min(1 + (int) (-Math.log(1 - random.nextDouble()) * 0.7), 5);
+        List<SyntheticAccount> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(account(settings, random, lastName, i, createdTimestamp, until));
+        }
+        return new SyntheticUser(
+                "user" + index + EMAIL_DOMAIN,
+                firstName + " " + lastName,
+                (1 + random.nextInt(200)) + " High Street",
+                pick(random, TOWNS),
+                "SY" + (1 + random.nextInt(99)) + " " + random.nextInt(10) + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26)),
+                String.format("+447%09d", random.nextInt(1_000_000_000)),
+                createdTimestamp,
+                accounts);
+    }
+
+    private static SyntheticAccount account(Settings settings, SplittableRandom random, String lastName, int position,
+                                            LocalDateTime userCreated, LocalDateTime until) {
+        boolean hot = random.nextDouble() < settings.hotAccountRatio();
+        AccountType type = hot || random.nextDouble() < 0.1 ? AccountType.BUSINESS : AccountType.PERSONAL;
+        long lifetimeSeconds = Duration.between(userCreated, until).toSeconds();
+        LocalDateTime createdTimestamp = userCreated.plusSeconds(lifetimeSeconds <= 1 ? 0 : random.nextLong(lifetimeSeconds / (position + 1)));
+        long activeSeconds = Math.max(1, Duration.between(createdTimestamp, until).toSeconds());
+
+        // Pareto with the configured mean, capped so one draw cannot dominate the dataset.
+        double mean = Math.max(1, settings.meanTransactionsPerAccount());
+        double scale = mean * (PARETO_SHAPE - 1) / PARETO_SHAPE;
+        long count = Math.min((long) Math.ceil(scale / Math.pow(1 - random.nextDouble(), 1 / PARETO_SHAPE)), (long) (mean * 50));
+        if (hot) {
+            count *= settings.hotAccountMultiplier();
+        }
+
+        long[] offsets = new long[(int) count];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = random.nextLong(activeSeconds);
+        }
+        Arrays.sort(offsets);
+
+        double amountScale = type == AccountType.BUSINESS ? 10 : 1;
+        BigDecimal balance = BigDecimal.ZERO;
+        List<SyntheticTransaction> transactions = new ArrayList<>(offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            // The first transaction opens the account with a larger deposit.
+            BigDecimal amount = logNormalAmount(random, (i == 0 ? 500 : 25) * amountScale);
+            TransactionType transactionType = i > 0 && random.nextBoolean() && amount.compareTo(balance) <= 0
+                    ? TransactionType.WITHDRAWAL
+                    : TransactionType.DEPOSIT;
+            balance = transactionType == TransactionType.DEPOSIT ? balance.add(amount) : balance.subtract(amount);
+            String description = pick(random, transactionType == TransactionType.DEPOSIT ? DEPOSIT_DESCRIPTIONS : WITHDRAWAL_DESCRIPTIONS);
+            transactions.add(new SyntheticTransaction(transactionType, amount, description, createdTimestamp.plusSeconds(offsets[i])));
+        }
+
+        String name = type == AccountType.BUSINESS ? lastName + " Trading " + (position + 1) : lastName + " Current " + (position + 1);
+        LocalDateTime updatedTimestamp = transactions.isEmpty() ? createdTimestamp : transactions.get(transactions.size() - 1).timestamp();
+        return new SyntheticAccount(name, type, balance, createdTimestamp, updatedTimestamp, transactions);
+    }
+
+    private static BigDecimal logNormalAmount(SplittableRandom random, double median) {
+        double value = median * Math.exp(1.2 * gaussian(random));
+        return BigDecimal.valueOf(Math.max(0.01, value)).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    // Box-Muller, so the stream of draws does not depend on any state outside the random generator.
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement statement, int index) throws SQLException;
+    }
+
+    record Settings(int users, long seed, int meanTransactionsPerAccount, double hotAccountRatio,
+                    int hotAccountMultiplier, int historyDays) {
+    }
+
+    record SyntheticUser(String email, String name, String line1, String town, String postcode, String phoneNumber,
+                         LocalDateTime createdTimestamp, List<SyntheticAccount> accounts) {
+    }
+
+    record SyntheticAccount(String name, AccountType type, BigDecimal balance, LocalDateTime createdTimestamp,
+                            LocalDateTime updatedTimestamp, List<SyntheticTransaction> transactions) {
+    }
+
+    record SyntheticTransaction(TransactionType type, BigDecimal amount, String description,
+                                LocalDateTime timestamp) {
+    }
+}
@@ -0,0 +1,98 @@
+-- The schema as Hibernate generated it from the entities before migrations were introduced.
+
+CREATE SEQUENCE account_number_blocks_seq START WITH 1 INCREMENT BY 1;
+
+-- Hibernate's pooled optimizer hands out ids in blocks of 50 (allocationSize on Transaction).
+CREATE SEQUENCE account_transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email             VARCHAR(255) NOT NULL,
+    password          VARCHAR(255) NOT NULL,
+    roles             VARCHAR(255) NOT NULL,
+    name              VARCHAR(255) NOT NULL,
+    line1             VARCHAR(255),
+    line2             VARCHAR(255),
+    line3             VARCHAR(255),
+    town              VARCHAR(255),
+    county            VARCHAR(255),
+    postcode          VARCHAR(255),
+    phone_number      VARCHAR(255) NOT NULL,
+    created_timestamp TIMESTAMP(6) NOT NULL,
+    updated_timestamp TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE bank_accounts (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    account_number    VARCHAR(255) NOT NULL,
+    sort_code         VARCHAR(255) NOT NULL,
+    name              VARCHAR(255) NOT NULL,
+    account_type      ENUM ('BUSINESS', 'PERSONAL') NOT NULL,
+    balance           NUMERIC(19, 2) NOT NULL,
+    currency          VARCHAR(255) NOT NULL,
+    created_timestamp TIMESTAMP(6) NOT NULL,
+    updated_timestamp TIMESTAMP(6) NOT NULL,
+    is_deleted        BOOLEAN NOT NULL,
+    version           BIGINT,
+    user_id           BIGINT NOT NULL,
+    CONSTRAINT pk_bank_accounts PRIMARY KEY (id),
+    CONSTRAINT uk_bank_accounts_account_number UNIQUE (account_number),
+    CONSTRAINT fk_bank_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE account_transactions (
+    id                 BIGINT NOT NULL,
+    account_id         BIGINT NOT NULL,
+    amount             NUMERIC(19, 2) NOT NULL,
+    currency           VARCHAR(255) NOT NULL,
+    transaction_type   ENUM ('DEPOSIT', 'WITHDRAWAL') NOT NULL,
+    description        VARCHAR(255),
+    timestamp          TIMESTAMP(6) NOT NULL,
+    transfer_reference VARCHAR(36),
+    CONSTRAINT pk_account_transactions PRIMARY KEY (id),
+    CONSTRAINT fk_account_transactions_account FOREIGN KEY (account_id) REFERENCES bank_accounts (id)
+);
+
+CREATE INDEX idx_account_transactions_account_timestamp_id ON account_transactions (account_id, timestamp, id);
+
+CREATE TABLE account_balance_checkpoints (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    account_id        BIGINT NOT NULL,
+    transaction_id    BIGINT NOT NULL,
+    timestamp         TIMESTAMP(6) NOT NULL,
+    balance           NUMERIC(19, 2) NOT NULL,
+    created_timestamp TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_account_balance_checkpoints PRIMARY KEY (id),
+    CONSTRAINT fk_account_balance_checkpoints_account FOREIGN KEY (account_id) REFERENCES bank_accounts (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_balance_checkpoints_account_timestamp_txn ON account_balance_checkpoints (account_id, timestamp, transaction_id);
+
+CREATE TABLE account_number_blocks (
+    id                 BIGINT NOT NULL,
+    block_size         INTEGER NOT NULL,
+    reserved_timestamp TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_account_number_blocks PRIMARY KEY (id)
+);
+
+CREATE TABLE idempotency_keys (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id             BIGINT NOT NULL,
+    idempotency_key     VARCHAR(255) NOT NULL,
+    request_fingerprint VARCHAR(64) NOT NULL,
+    transaction_id      BIGINT NOT NULL,
+    created_timestamp   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key),
+    CONSTRAINT fk_idempotency_keys_transaction FOREIGN KEY (transaction_id) REFERENCES account_transactions (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_timestamp);
+
+CREATE TABLE ledger_journal_positions (
+    shard            INTEGER NOT NULL,
+    applied_sequence BIGINT NOT NULL,
+    CONSTRAINT pk_ledger_journal_positions PRIMARY KEY (shard)
+);
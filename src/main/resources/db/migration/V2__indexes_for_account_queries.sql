@@ -0,0 +1,17 @@
+-- Indexes for the repository queries on the request path. Each query and the index that serves it:
+--
+--   AccountRepository.findByAccountNumber    WHERE account_number = ? AND is_deleted = FALSE
+--       uk_bank_accounts_account_number, a single-row lookup; is_deleted is checked on that row.
+--   AccountRepository.findByUserId           WHERE user_id = ? AND is_deleted = FALSE
+--       idx_bank_accounts_user_deleted below. Before it only the foreign key's index on user_id could be used,
+--       which also visits a user's deleted accounts.
+--   TransactionRepository.findByAccountId    WHERE account_id = ?
+--       the index H2 creates for fk_account_transactions_account. The paged and streamed reads, which order by
+--       (timestamp, id), use idx_account_transactions_account_timestamp_id.
+--   TransactionRepository.findByIdAndAccountId  WHERE id = ? AND account_id = ?
+--       pk_account_transactions, a single-row lookup; account_id is checked on that row.
+--
+-- H2 has no partial indexes, so is_deleted is an index column rather than an index condition. On a database with
+-- partial indexes, (user_id) WHERE is_deleted = FALSE would be the smaller equivalent.
+
+CREATE INDEX idx_bank_accounts_user_deleted ON bank_accounts (user_id, is_deleted);
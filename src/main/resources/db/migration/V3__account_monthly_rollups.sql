@@ -0,0 +1,19 @@
+-- Count and total of each account's transactions per calendar month and type, maintained in the database
+-- transaction that inserts the transactions, so a monthly summary reads one row per month and type instead of
+-- every transaction. The primary key leads with (account_id, month_start), which serves the summary's range read.
+
+CREATE TABLE account_monthly_rollups (
+    account_id        BIGINT NOT NULL,
+    month_start       DATE NOT NULL,
+    transaction_type  ENUM ('DEPOSIT', 'WITHDRAWAL') NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    total_amount      NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_account_monthly_rollups PRIMARY KEY (account_id, month_start, transaction_type),
+    CONSTRAINT fk_account_monthly_rollups_account FOREIGN KEY (account_id) REFERENCES bank_accounts (id) ON DELETE CASCADE
+);
+
+-- Transactions written before this migration.
+INSERT INTO account_monthly_rollups (account_id, month_start, transaction_type, transaction_count, total_amount)
+SELECT account_id, CAST(DATE_TRUNC(MONTH, timestamp) AS DATE), transaction_type, COUNT(*), SUM(amount)
+FROM account_transactions
+GROUP BY account_id, CAST(DATE_TRUNC(MONTH, timestamp) AS DATE), transaction_type;
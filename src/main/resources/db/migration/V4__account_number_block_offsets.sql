@@ -0,0 +1,17 @@
+-- Blocks were placed at (id - 1) * block_size, which overlaps as soon as two instances, or two deployments, use
+-- different block sizes. Each block now records the counter it starts at, taken from a single counter row that
+-- every reservation moves on by its own size while holding the row lock.
+
+ALTER TABLE account_number_blocks ADD COLUMN start_counter BIGINT;
+UPDATE account_number_blocks SET start_counter = (id - 1) * block_size;
+ALTER TABLE account_number_blocks ALTER COLUMN start_counter SET NOT NULL;
+
+CREATE TABLE account_number_counter (
+    id           INTEGER NOT NULL,
+    next_counter BIGINT NOT NULL,
+    CONSTRAINT pk_account_number_counter PRIMARY KEY (id)
+);
+
+-- Past every block reserved so far, whatever sizes they were reserved with.
+INSERT INTO account_number_counter (id, next_counter)
+SELECT 1, COALESCE(MAX(start_counter + block_size), 0) FROM account_number_blocks;
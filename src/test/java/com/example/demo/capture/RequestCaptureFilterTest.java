@@ -0,0 +1,58 @@
+package com.example.demo.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class RequestCaptureFilterTest {
+
+    @Test
+    @DisplayName("Captured requests keep their shape but lose credentials and personal details")
+    void capturedRequestsAreSanitised() throws Exception {
+        RequestCaptureWriter writer = mock(RequestCaptureWriter.class);
+        RequestCaptureFilter filter = new RequestCaptureFilter(new ObjectMapper(), writer,
+                Set.of("password", "email", "address"), 65536);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/users");
+        request.setContentType("application/json");
+        request.addHeader("Authorization", "Bearer secret-token");
+        request.addHeader("Idempotency-Key", "abc-123");
+        request.setContent("""
+                {"email":"someone@example.com","password":"hunter22","address":{"line1":"1 Road"},"phoneNumber":"+447700000000"}
+                """.getBytes(StandardCharsets.UTF_8));
+        // The body is only buffered once the application reads it.
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) throws IOException {
+                servletRequest.getInputStream().readAllBytes();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ArgumentCaptor<CapturedRequest> captured = ArgumentCaptor.forClass(CapturedRequest.class);
+        verify(writer).submit(captured.capture());
+        CapturedRequest record = captured.getValue();
+        assertEquals("/v1/users", record.path());
+        assertEquals("abc-123", record.headers().get("Idempotency-Key"));
+        assertFalse(record.headers().containsKey("Authorization"));
+        assertEquals("***", record.body().get("email").asText());
+        assertEquals("***", record.body().get("password").asText());
+        assertEquals("***", record.body().get("address").asText());
+        assertEquals("+447700000000", record.body().get("phoneNumber").asText());
+    }
+}
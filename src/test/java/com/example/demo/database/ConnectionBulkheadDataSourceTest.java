@@ -0,0 +1,35 @@
+package com.example.demo.database;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionBulkheadDataSourceTest {
+
+    @Test
+    @DisplayName("A full bulkhead rejects new callers after the acquire timeout and admits them once a connection closes")
+    void fullBulkhead_rejectsUntilAConnectionIsReturned() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulkhead");
+        ConnectionBulkheadDataSource bulkhead = new ConnectionBulkheadDataSource(dataSource, 2, Duration.ofMillis(50));
+
+        try (Connection first = bulkhead.getConnection(); Connection second = bulkhead.getConnection()) {
+            assertEquals(2, bulkhead.getInUse());
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+            second.close();
+            try (Connection third = bulkhead.getConnection()) {
+                assertTrue(third.isValid(1));
+            }
+        }
+        assertEquals(0, bulkhead.getInUse());
+        assertEquals(1, bulkhead.getRejected());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.database;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Account;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Starts the application twice on the durable profile's database file, as a restart would.
+public class DurableStorageTest {
+
+    private static final String COUNTS = "SELECT (SELECT COUNT(*) FROM users) || '/' || (SELECT COUNT(*) FROM bank_accounts) "
+            + "|| '/' || (SELECT COUNT(*) FROM account_transactions)";
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Data committed before a restart is still there after it, and seeding does not repeat")
+    void restart_keepsCommittedData_withoutReseeding() {
+        String accountNumber;
+        BigDecimal balanceAfterDeposit;
+        String countsAfterDeposit;
+        try (ConfigurableApplicationContext context = start()) {
+            User admin = context.getBean(UserRepository.class).findByEmail("admin@email.com").orElseThrow();
+            Account account = context.getBean(AccountRepository.class).findByUserId(admin.getId()).getFirst();
+            accountNumber = account.getAccountNumber();
+            balanceAfterDeposit = account.getBalance().add(new BigDecimal("25.00"));
+
+            SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    new AuthenticatedUser(admin.getId(), admin.getEmail()), null, List.of(new SimpleGrantedAuthority("SCOPE_ROLE_USER"))));
+            context.getBean(TransactionService.class).createTransaction(accountNumber,
+                    new CreateTransactionRequestDto(new BigDecimal("25.00"), "GBP", TransactionType.DEPOSIT, "before restart"));
+            countsAfterDeposit = context.getBean(JdbcTemplate.class).queryForObject(COUNTS, String.class);
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(countsAfterDeposit, context.getBean(JdbcTemplate.class).queryForObject(COUNTS, String.class));
+            assertEquals(0, balanceAfterDeposit.compareTo(
+                    context.getBean(AccountRepository.class).findByAccountNumber(accountNumber).orElseThrow().getBalance()));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DemoApplication.class).run(
+                "--spring.profiles.active=durable",
+                "--banking.storage.directory=" + directory,
+                "--server.port=0",
+                "--banking.synthetic-data.users=50",
+                "--banking.synthetic-data.mean-transactions-per-account=5");
+    }
+}
@@ -5,6 +5,7 @@ import com.example.demo.dto.LoginRequestDto;
 import com.example.demo.dto.accounts.AccountResponseDto;
 import com.example.demo.dto.accounts.CreateAccountRequestDto;
 import com.example.demo.dto.accounts.ListAccountsResponseDto;
+import com.example.demo.dto.transactions.CreateTransactionBatchRequestDto;
 import com.example.demo.dto.transactions.CreateTransactionRequestDto;
 import com.example.demo.dto.transactions.ListTransactionsResponseDto;
 import com.example.demo.dto.users.CreateUserRequestDto;
@@ -12,6 +13,7 @@ import com.example.demo.enums.AccountType;
 import com.example.demo.enums.TransactionType;
 import com.example.demo.model.Address;
 import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.BalanceCheckpointRepository;
 import com.example.demo.repository.TransactionRepository;
 import com.example.demo.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -29,6 +31,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,6 +63,9 @@ public class IntegrationTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
     private String jwtToken;
     private final String userEmail = "testuser@example.com";
     private final String userPassword = "password123";
@@ -243,4 +251,200 @@ public class IntegrationTest {
                 .andExpect(status().isNotFound());
         logger.info("User verified as not found after deletion.");
     }
+
+    @Test
+    @DisplayName("Test batch transactions: items are applied in order and rejected items do not abort the batch")
+    void testBatchTransactions() throws Exception {
+        registerAndLogin();
+        createAccount();
+
+        CreateTransactionBatchRequestDto batchRequest = new CreateTransactionBatchRequestDto(List.of(
+                new CreateTransactionRequestDto(new BigDecimal("50.00"), "GBP", TransactionType.DEPOSIT, "Deposit 1"),
+                new CreateTransactionRequestDto(new BigDecimal("80.00"), "GBP", TransactionType.WITHDRAWAL, "Too large"),
+                new CreateTransactionRequestDto(new BigDecimal("20.00"), "USD", TransactionType.DEPOSIT, "Wrong currency"),
+                new CreateTransactionRequestDto(new BigDecimal("30.00"), "GBP", TransactionType.WITHDRAWAL, "Withdrawal 1")));
+
+        mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions/batch", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].transaction.reference").value("Deposit 1"))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient funds to process transaction. Current balance: 50.00"))
+                .andExpect(jsonPath("$.results[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[3].status").value("CREATED"));
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(20.00));
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(2));
+
+        mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions/batch", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactions\":[null]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test transaction history pagination: pages follow the continuation token in (timestamp, id) order")
+    void testTransactionHistoryPagination() throws Exception {
+        registerAndLogin();
+        createAccount();
+
+        List<CreateTransactionRequestDto> deposits = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            deposits.add(new CreateTransactionRequestDto(new BigDecimal("10.00"), "GBP", TransactionType.DEPOSIT, "Deposit " + i));
+        }
+        mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions/batch", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTransactionBatchRequestDto(deposits))))
+                .andExpect(status().isOk());
+
+        List<String> references = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            MvcResult pageResult = mockMvc.perform(get("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                            .header("Authorization", "Bearer " + jwtToken)
+                            .param("pageSize", "2")
+                            .param("pageToken", pageToken == null ? "" : pageToken))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ListTransactionsResponseDto page = objectMapper.readValue(pageResult.getResponse().getContentAsString(), ListTransactionsResponseDto.class);
+            assertTrue(page.transactions().size() <= 2, "A page must not exceed the requested size");
+            page.transactions().forEach(transaction -> references.add(transaction.reference()));
+            pageToken = page.nextPageToken();
+            pages++;
+        } while (pageToken != null);
+
+        assertEquals(3, pages, "Five transactions with a page size of two should span three pages");
+        assertEquals(List.of("Deposit 1", "Deposit 2", "Deposit 3", "Deposit 4", "Deposit 5"), references);
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("pageToken", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test historical balance: the balance as of a past time excludes later transactions")
+    void testBalanceAsOf() throws Exception {
+        registerAndLogin();
+        createAccount();
+
+        postTransaction(new CreateTransactionRequestDto(new BigDecimal("100.00"), "GBP", TransactionType.DEPOSIT, "Salary"));
+        LocalDateTime afterFirstDeposit = LocalDateTime.now();
+        postTransaction(new CreateTransactionRequestDto(new BigDecimal("50.00"), "GBP", TransactionType.DEPOSIT, "Bonus"));
+        postTransaction(new CreateTransactionRequestDto(new BigDecimal("30.00"), "GBP", TransactionType.WITHDRAWAL, "Rent"));
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/balance", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("asOf", afterFirstDeposit.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(100.00));
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/balance", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(120.00));
+
+        // Without checkpoints, as for synthetic accounts, the balance is worked back from the current one.
+        balanceCheckpointRepository.deleteAll();
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/balance", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("asOf", afterFirstDeposit.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(100.00));
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/balance", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("asOf", "2000-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test Idempotency-Key: a retried transaction is replayed instead of applied twice")
+    void testIdempotentTransactionRetry() throws Exception {
+        registerAndLogin();
+        createAccount();
+
+        CreateTransactionRequestDto depositRequest = new CreateTransactionRequestDto(
+                new BigDecimal("75.00"), "GBP", TransactionType.DEPOSIT, "Retried deposit");
+        MvcResult firstAttempt = mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Idempotency-Key", "deposit-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(depositRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Idempotency-Key", "deposit-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(depositRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        assertEquals(firstAttempt.getResponse().getContentAsString(), retry.getResponse().getContentAsString(),
+                "A retry must return the original transaction");
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(75.00));
+
+        CreateTransactionRequestDto differentRequest = new CreateTransactionRequestDto(
+                new BigDecimal("5.00"), "GBP", TransactionType.DEPOSIT, "Different deposit");
+        mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Idempotency-Key", "deposit-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(differentRequest)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private void postTransaction(CreateTransactionRequestDto request) throws Exception {
+        mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private void registerAndLogin() throws Exception {
+        Address userAddress = new Address("123 Test St", "Testville", null, "Test City", "Test County", "TS1 2ST");
+        CreateUserRequestDto registerRequest = new CreateUserRequestDto(
+                userEmail, userPassword, "Test User", userAddress, "+441234567890");
+        mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated());
+
+        MvcResult loginResult = mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDto(userEmail, userPassword))))
+                .andExpect(status().isOk())
+                .andReturn();
+        jwtToken = objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponseDto.class).jwt();
+    }
+
+    private void createAccount() throws Exception {
+        MvcResult createAccountResult = mockMvc.perform(post("/v1/accounts")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateAccountRequestDto(accountName, AccountType.PERSONAL))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        accountNumber = objectMapper.readValue(createAccountResult.getResponse().getContentAsString(), AccountResponseDto.class).accountNumber();
+    }
 }
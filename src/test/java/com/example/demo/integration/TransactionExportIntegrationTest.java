@@ -0,0 +1,199 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.AuthResponseDto;
+import com.example.demo.dto.LoginRequestDto;
+import com.example.demo.dto.accounts.AccountResponseDto;
+import com.example.demo.dto.accounts.CreateAccountRequestDto;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.users.CreateUserRequestDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Address;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional like IntegrationTest: the export streams on the async response thread in a transaction of its
+// own, which would not see rows left uncommitted by a test transaction. Every test registers its own user instead.
+// Metrics export is switched back on so that the Prometheus scrape can be checked.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exporttest;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class TransactionExportIntegrationTest {
+
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String jwtToken;
+    private String accountNumber;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin();
+        accountNumber = createAccount(jwtToken);
+        postTransaction(new CreateTransactionRequestDto(new BigDecimal("100.00"), "GBP", TransactionType.DEPOSIT, "Salary"));
+        postTransaction(new CreateTransactionRequestDto(new BigDecimal("25.50"), "GBP", TransactionType.WITHDRAWAL, "Rent, flat 2"));
+        postTransaction(new CreateTransactionRequestDto(new BigDecimal("4.50"), "GBP", TransactionType.WITHDRAWAL, "Coffee \"to go\""));
+    }
+
+    @Test
+    @DisplayName("Test NDJSON export: one transaction per line, oldest first")
+    void testNdjsonExport() throws Exception {
+        MvcResult result = export("ndjson", false);
+
+        assertEquals("application/x-ndjson", result.getResponse().getContentType());
+        List<String> lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("Salary", first.get("reference").asText());
+        assertEquals("DEPOSIT", first.get("type").asText());
+        assertEquals(0, new BigDecimal("100.00").compareTo(first.get("amount").decimalValue()));
+        assertEquals("Rent, flat 2", objectMapper.readTree(lines.get(1)).get("reference").asText());
+        assertEquals("Coffee \"to go\"", objectMapper.readTree(lines.get(2)).get("reference").asText());
+    }
+
+    @Test
+    @DisplayName("Test CSV export: a header row, and references with commas or quotes are quoted")
+    void testCsvExport() throws Exception {
+        MvcResult result = export("csv", false);
+
+        assertEquals("text/csv", result.getResponse().getContentType());
+        List<String> lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, lines.size());
+        assertEquals("id,amount,currency,type,reference,userId,createdTimestamp", lines.get(0));
+        assertEquals(List.of("100.00", "GBP", "DEPOSIT", "Salary"), List.of(lines.get(1).split(",")).subList(1, 5));
+        assertEquals(",25.50,GBP,WITHDRAWAL,\"Rent, flat 2\",", csvMiddle(lines.get(2)));
+        assertEquals(",4.50,GBP,WITHDRAWAL,\"Coffee \"\"to go\"\"\",", csvMiddle(lines.get(3)));
+    }
+
+    @Test
+    @DisplayName("Test gzip export: the body is gzip-encoded and decodes to the plain export")
+    void testGzipExport() throws Exception {
+        byte[] plain = export("csv", false).getResponse().getContentAsByteArray();
+
+        MvcResult result = export("csv", true);
+
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(plain, gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Test export access: another user's account is forbidden and a missing account is not found")
+    void testExportAccess() throws Exception {
+        String otherToken = registerAndLogin();
+        String otherAccountNumber = createAccount(otherToken);
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/transactions/export", otherAccountNumber)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/v1/accounts/{accountNumber}/transactions/export", "01999999")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test metrics: the Prometheus scrape has transaction counters and the export's database time")
+    void testPrometheusMetrics() throws Exception {
+        export("ndjson", false);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("banking_transactions_total{"), "banking_transactions_total should be published");
+        String exportDatabaseTime = scrape.lines()
+                .filter(line -> line.startsWith("banking_request_database_seconds_sum{"))
+                .filter(line -> line.contains("uri=\"/v1/accounts/{accountNumber}/transactions/export\""))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("banking_request_database_seconds should be published for the export"));
+        assertTrue(Double.parseDouble(exportDatabaseTime.substring(exportDatabaseTime.lastIndexOf(' ') + 1)) > 0,
+                "The export's streamed queries should count towards its database time");
+    }
+
+    private MvcResult export(String format, boolean gzip) throws Exception {
+        MvcResult started = mockMvc.perform(get("/v1/accounts/{accountNumber}/transactions/export", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("format", format)
+                        .param("gzip", String.valueOf(gzip)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + accountNumber + "." + format + "\""))
+                .andReturn();
+    }
+
+    // A CSV row without its id and timestamp, which differ between runs.
+    private static String csvMiddle(String line) {
+        return line.substring(line.indexOf(','), line.lastIndexOf(',', line.lastIndexOf(',') - 1) + 1);
+    }
+
+    private void postTransaction(CreateTransactionRequestDto request) throws Exception {
+        mockMvc.perform(post("/v1/accounts/{accountNumber}/transactions", accountNumber)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private String registerAndLogin() throws Exception {
+        String email = "export-" + UUID.randomUUID() + "@example.com";
+        Address address = new Address("123 Test St", "Testville", null, "Test City", "Test County", "TS1 2ST");
+        mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateUserRequestDto(email, PASSWORD, "Export User", address, "+441234567890"))))
+                .andExpect(status().isCreated());
+
+        MvcResult loginResult = mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDto(email, PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponseDto.class).jwt();
+    }
+
+    private String createAccount(String token) throws Exception {
+        MvcResult createAccountResult = mockMvc.perform(post("/v1/accounts")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateAccountRequestDto("Export Account", AccountType.PERSONAL))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(createAccountResult.getResponse().getContentAsString(), AccountResponseDto.class).accountNumber();
+    }
+}
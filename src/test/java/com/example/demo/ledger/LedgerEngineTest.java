@@ -0,0 +1,205 @@
+package com.example.demo.ledger;
+
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.exception.InsufficientFundsException;
+import com.example.demo.model.Account;
+import com.example.demo.model.AccountMonthlyRollup;
+import com.example.demo.model.Address;
+import com.example.demo.model.Transaction;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.BalanceCheckpointRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import com.example.demo.service.MonthlyRollupService;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledgertest",
+        "banking.ledger.enabled=true"
+})
+public class LedgerEngineTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngineTest.class);
+
+    private static final int OPERATIONS = 2000;
+    private static final int THREADS = 32;
+    private static final int ACCOUNTS = 4;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal DEPOSIT_AMOUNT = new BigDecimal("10.00");
+    private static final BigDecimal WITHDRAWAL_AMOUNT = new BigDecimal("15.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String userEmail = "ledger@example.com";
+    private User user;
+    private final List<Account> accounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Address address = new Address("1 Shard Street", null, null, "Batchford", "Test County", "BF1 1BF");
+        user = userRepository.save(new User(userEmail, "password", "USER", "Ledger User", address, "+441234567890"));
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Ledger Account " + i, AccountType.BUSINESS, user);
+            account.setAccountNumber(String.valueOf(97000000 + i));
+            account.setBalance(INITIAL_BALANCE);
+            accounts.add(accountRepository.save(account));
+        }
+        authenticate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        balanceCheckpointRepository.deleteAll();
+        for (Account account : accounts) {
+            transactionRepository.deleteAll(transactionRepository.findByAccountId(account.getId()));
+            accountRepository.deleteById(account.getId());
+        }
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent deposits and withdrawals through the ledger are all persisted and never overdraw")
+    void concurrentTransactions_areAppliedExactlyOnce() throws Exception {
+        AtomicInteger[] deposits = new AtomicInteger[ACCOUNTS];
+        AtomicInteger[] withdrawals = new AtomicInteger[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            deposits[i] = new AtomicInteger();
+            withdrawals[i] = new AtomicInteger();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(OPERATIONS);
+            for (int i = 0; i < OPERATIONS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    authenticate();
+                    int account = index % ACCOUNTS;
+                    TransactionType type = (index / ACCOUNTS) % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+                    BigDecimal amount = type == TransactionType.DEPOSIT ? DEPOSIT_AMOUNT : WITHDRAWAL_AMOUNT;
+                    try {
+                        transactionService.createTransaction(accounts.get(account).getAccountNumber(),
+                                new CreateTransactionRequestDto(amount, "GBP", type, "ledger " + index));
+                        (type == TransactionType.DEPOSIT ? deposits : withdrawals)[account].incrementAndGet();
+                    } catch (InsufficientFundsException exception) {
+                        // Expected once an account runs low.
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = accounts.get(i);
+            BigDecimal expectedBalance = INITIAL_BALANCE
+                    .add(DEPOSIT_AMOUNT.multiply(BigDecimal.valueOf(deposits[i].get())))
+                    .subtract(WITHDRAWAL_AMOUNT.multiply(BigDecimal.valueOf(withdrawals[i].get())));
+            BigDecimal finalBalance = accountRepository.findBalanceById(account.getId()).orElseThrow();
+            List<Transaction> transactions = transactionRepository.findByAccountId(account.getId());
+
+            assertEquals(OPERATIONS / ACCOUNTS / 2, deposits[i].get(), "Deposits must never be rejected");
+            assertEquals(0, expectedBalance.compareTo(finalBalance), "Final balance must match the applied transactions");
+            assertTrue(finalBalance.signum() >= 0, "Balance must never go negative");
+            assertEquals(deposits[i].get() + withdrawals[i].get(), transactions.size());
+
+            // The run may cross a month boundary, so sum the rollups over the previous month as well.
+            List<AccountMonthlyRollup> rollups = monthlyRollupService.findRollups(account.getId(),
+                    YearMonth.now().minusMonths(1), YearMonth.now());
+            assertEquals(deposits[i].get(), countOf(rollups, TransactionType.DEPOSIT), "Rollups must count every deposit");
+            assertEquals(withdrawals[i].get(), countOf(rollups, TransactionType.WITHDRAWAL), "Rollups must count every withdrawal");
+        }
+
+        logger.info("Ledger throughput over {} accounts with {} threads: {} ops/s", ACCOUNTS, THREADS,
+                Math.round(OPERATIONS / (elapsedNanos / 1_000_000_000.0)));
+    }
+
+    @Test
+    @DisplayName("A balance changed outside the ledger is re-read rather than overdrawn")
+    void balanceChangedOutsideLedger_isReloaded() {
+        Account account = accounts.get(0);
+        transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("50.00"), "GBP", TransactionType.DEPOSIT, "ledger deposit"));
+
+        // The ledger now holds 150.00 for the account; take 130.00 out behind its back.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                accountRepository.debitBalance(account.getId(), new BigDecimal("130.00"), LocalDateTime.now()));
+
+        assertThrows(InsufficientFundsException.class, () -> transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("100.00"), "GBP", TransactionType.WITHDRAWAL, "stale withdrawal")));
+        transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("20.00"), "GBP", TransactionType.WITHDRAWAL, "exact withdrawal"));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()));
+        assertEquals(2, transactionRepository.findByAccountId(account.getId()).size());
+    }
+
+    private static long countOf(List<AccountMonthlyRollup> rollups, TransactionType type) {
+        return rollups.stream().filter(rollup -> rollup.getTransactionType() == type)
+                .mapToLong(AccountMonthlyRollup::getTransactionCount).sum();
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(user.getId(), userEmail), null, List.of(new SimpleGrantedAuthority("SCOPE_ROLE_USER"))));
+    }
+}
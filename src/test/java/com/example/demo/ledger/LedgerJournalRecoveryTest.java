@@ -0,0 +1,284 @@
+package com.example.demo.ledger;
+
+import com.example.demo.dto.transactions.CreateTransactionBatchRequestDto;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
+import com.example.demo.dto.transactions.TransactionResponseDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.exception.InsufficientFundsException;
+import com.example.demo.metrics.BankingMetrics;
+import com.example.demo.model.Account;
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.model.Address;
+import com.example.demo.model.Transaction;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.BalanceCheckpointRepository;
+import com.example.demo.repository.LedgerJournalPositionRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import com.example.demo.service.AccountCache;
+import com.example.demo.service.AccountNumberAllocator;
+import com.example.demo.service.BalanceCheckpointService;
+import com.example.demo.service.MonthlyRollupService;
+import com.example.demo.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The database outlives each application context, as the journal directory does, so a restarted context replays
+// the journal into the database it was written against.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:journaltest;DB_CLOSE_DELAY=-1",
+        "banking.ledger.enabled=true",
+        "banking.ledger.shards=2",
+        "banking.ledger.journal.enabled=true",
+        "banking.ledger.journal.segment-size=1MB"
+})
+public class LedgerJournalRecoveryTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("banking.ledger.journal.directory", () -> journalDirectory.toString());
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private LedgerJournalPositionRepository journalPositionRepository;
+
+    @Autowired
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private BankingMetrics bankingMetrics;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String userEmail = "journal@example.com";
+    private User user;
+    private Account account;
+    private Account otherAccount;
+
+    @BeforeEach
+    void setUp() {
+        Address address = new Address("1 Append Row", null, null, "Mapton", "Test County", "MP1 1MP");
+        user = userRepository.save(new User(userEmail, "password", "USER", "Journal User", address, "+441234567890"));
+        account = openAccount("Journal Account");
+        otherAccount = openAccount("Other Journal Account");
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(user.getId(), userEmail), null, List.of(new SimpleGrantedAuthority("SCOPE_ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        balanceCheckpointRepository.deleteAll();
+        for (Account opened : List.of(account, otherAccount)) {
+            transactionRepository.deleteAll(transactionRepository.findByAccountId(opened.getId()));
+            accountRepository.deleteById(opened.getId());
+        }
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Journalled transactions reach the database under the id and timestamp the caller was given")
+    void journalledTransactionsAreWrittenBehind() throws Exception {
+        TransactionResponseDto deposit = transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("40.00"), "GBP", TransactionType.DEPOSIT, "journalled deposit"));
+        TransactionResponseDto withdrawal = transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("15.00"), "GBP", TransactionType.WITHDRAWAL, "journalled withdrawal"));
+
+        Transaction stored = awaitTransaction(withdrawal.id());
+        assertEquals(withdrawal.createdTimestamp(), stored.getTimestamp());
+        assertEquals("journalled withdrawal", stored.getDescription());
+        assertTrue(transactionRepository.findById(deposit.id()).isPresent());
+        assertEquals(0, new BigDecimal("25.00").compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()));
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Entries journalled but never applied are replayed into the database at startup")
+    void unappliedEntriesAreReplayedAtStartup() throws Exception {
+        transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("10.00"), "GBP", TransactionType.DEPOSIT, "before the crash"));
+        awaitBalance(new BigDecimal("10.00"));
+        ledgerEngine.stop();
+
+        // An entry that was acknowledged but never reached the database, as after a crash.
+        Long transactionId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR account_transactions_seq", Long.class);
+        int shard = Math.floorMod(account.getAccountNumber().hashCode(), 2);
+        LedgerJournal journal = new LedgerJournal(journalDirectory.resolve("shard-" + shard), (int) DataSize.ofMegabytes(1).toBytes());
+        journal.recover();
+        journal.append(new JournalEntry(journal.nextSequence(), transactionId, account.getId(), TransactionType.DEPOSIT,
+                new BigDecimal("5.00"), "GBP", "acknowledged, not applied", LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)));
+        journal.force();
+
+        LedgerEngine restarted = startEngine();
+        restarted.stop();
+        assertEquals(0, new BigDecimal("15.00").compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()));
+        assertEquals("acknowledged, not applied", transactionRepository.findById(transactionId).orElseThrow().getDescription());
+
+        // Starting again must not apply the entry a second time.
+        startEngine().stop();
+        assertEquals(0, new BigDecimal("15.00").compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()));
+        assertEquals(2, transactionRepository.findByAccountId(account.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Money debited outside the ledger is never spent again by a journalled withdrawal")
+    void directDebitsAndJournalledWithdrawals_neverOverdraw() throws Exception {
+        transactionService.createTransaction(account.getAccountNumber(), request("50.00", TransactionType.DEPOSIT));
+        awaitBalance(new BigDecimal("50.00"));
+
+        // The shard still holds 50.00 for the account when a transfer takes it all out directly.
+        transactionService.createTransfer(account.getAccountNumber(),
+                new CreateTransferRequestDto(otherAccount.getAccountNumber(), new BigDecimal("50.00"), "GBP", "direct transfer"));
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.createTransaction(account.getAccountNumber(), request("50.00", TransactionType.WITHDRAWAL)));
+
+        transactionService.createTransaction(account.getAccountNumber(), request("30.00", TransactionType.DEPOSIT));
+        transactionService.createTransactions(account.getAccountNumber(),
+                new CreateTransactionBatchRequestDto(List.of(request("30.00", TransactionType.WITHDRAWAL))));
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.createTransaction(account.getAccountNumber(), request("30.00", TransactionType.WITHDRAWAL)));
+
+        // While a direct debit's transaction is open its hold stands, and once it rolls back the money is free again.
+        transactionService.createTransaction(account.getAccountNumber(), request("20.00", TransactionType.DEPOSIT));
+        AccountSnapshot snapshot = accountCache.findByAccountNumber(account.getAccountNumber()).orElseThrow();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledgerEngine.hold(snapshot, new BigDecimal("20.00"));
+            assertThrows(InsufficientFundsException.class,
+                    () -> ledgerEngine.apply(snapshot, TransactionType.WITHDRAWAL, new BigDecimal("20.00"), "while held"));
+            status.setRollbackOnly();
+        });
+        transactionService.createTransaction(account.getAccountNumber(), request("20.00", TransactionType.WITHDRAWAL));
+
+        awaitBalance(BigDecimal.ZERO);
+        Thread.sleep(200);
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()));
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Entries that cannot be applied stay in the journal instead of being dropped")
+    void unapplicableEntriesAreKeptInTheJournal() {
+        ledgerEngine.stop();
+        Long transactionId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR account_transactions_seq", Long.class);
+        int shard = Math.floorMod(account.getAccountNumber().hashCode(), 2);
+        LedgerJournal journal = new LedgerJournal(journalDirectory.resolve("shard-" + shard), (int) DataSize.ofMegabytes(1).toBytes());
+        journal.recover();
+        journal.append(new JournalEntry(journal.nextSequence(), transactionId, account.getId(), TransactionType.DEPOSIT,
+                new BigDecimal("5.00"), "GBP", "deposit to a deleted account", LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)));
+        journal.force();
+
+        jdbcTemplate.update("UPDATE bank_accounts SET is_deleted = TRUE WHERE id = ?", account.getId());
+        assertThrows(IllegalStateException.class, this::startEngine);
+        assertTrue(transactionRepository.findById(transactionId).isEmpty());
+
+        // Once the account can take the entry again it is applied from the journal.
+        jdbcTemplate.update("UPDATE bank_accounts SET is_deleted = FALSE WHERE id = ?", account.getId());
+        startEngine().stop();
+        assertEquals(0, new BigDecimal("5.00").compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()));
+        assertEquals("deposit to a deleted account", transactionRepository.findById(transactionId).orElseThrow().getDescription());
+    }
+
+    private Account openAccount(String name) {
+        Account opened = new Account(name, AccountType.PERSONAL, user);
+        opened.setAccountNumber(accountNumberAllocator.nextAccountNumber());
+        return accountRepository.save(opened);
+    }
+
+    private static CreateTransactionRequestDto request(String amount, TransactionType type) {
+        return new CreateTransactionRequestDto(new BigDecimal(amount), "GBP", type, "journal test");
+    }
+
+    private LedgerEngine startEngine() {
+        LedgerEngine engine = new LedgerEngine(accountRepository, transactionRepository, balanceCheckpointService, monthlyRollupService, accountCache,
+                bankingMetrics, transactionManager, jdbcTemplate, journalPositionRepository, 2, 16, 8, Duration.ofSeconds(5),
+                1000, true, journalDirectory, DataSize.ofMegabytes(1));
+        engine.start();
+        return engine;
+    }
+
+    private Transaction awaitTransaction(Long id) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Optional<Transaction> stored = transactionRepository.findById(id);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Transaction " + id + " was never written to the database");
+    }
+
+    private void awaitBalance(BigDecimal expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (expected.compareTo(accountRepository.findBalanceById(account.getId()).orElseThrow()) == 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Balance never reached " + expected);
+    }
+}
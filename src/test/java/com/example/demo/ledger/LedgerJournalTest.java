@@ -0,0 +1,116 @@
+package com.example.demo.ledger;
+
+import com.example.demo.enums.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LedgerJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Forced entries are read back in order across segments after a restart")
+    void entriesSurviveRestartAcrossSegments() {
+        LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE);
+        journal.recover();
+        List<JournalEntry> written = appendAndForce(journal, 100);
+
+        LedgerJournal reopened = new LedgerJournal(directory, SEGMENT_SIZE);
+        assertEquals(written, reopened.recover());
+        assertEquals(100, reopened.lastSequence());
+        assertEquals(101, reopened.nextSequence());
+        assertTrue(segments().size() > 1, "100 entries must not fit in one 4KB segment");
+    }
+
+    @Test
+    @DisplayName("A torn last record is discarded and appending resumes in its place")
+    void tornRecordIsDiscarded() throws IOException {
+        LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE);
+        journal.recover();
+        List<JournalEntry> written = appendAndForce(journal, 3);
+
+        // Corrupt one byte in the payload of the last record.
+        Path segment = segments().get(0);
+        List<JournalEntry> intact = written.subList(0, 2);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long lastRecordEnd = 0;
+            while (true) {
+                file.seek(lastRecordEnd);
+                int length = file.readInt();
+                if (length == 0) {
+                    break;
+                }
+                lastRecordEnd += 8 + length;
+            }
+            file.seek(lastRecordEnd - 1);
+            int lastByte = file.read();
+            file.seek(lastRecordEnd - 1);
+            file.write(lastByte ^ 0xFF);
+        }
+
+        LedgerJournal reopened = new LedgerJournal(directory, SEGMENT_SIZE);
+        assertEquals(intact, reopened.recover());
+        JournalEntry replacement = entry(reopened.nextSequence());
+        reopened.append(replacement);
+        reopened.force();
+
+        assertEquals(List.of(intact.get(0), intact.get(1), replacement), new LedgerJournal(directory, SEGMENT_SIZE).recover());
+    }
+
+    @Test
+    @DisplayName("Segments are deleted once every entry in them has been applied")
+    void appliedSegmentsAreReleased() {
+        LedgerJournal journal = new LedgerJournal(directory, SEGMENT_SIZE);
+        journal.recover();
+        appendAndForce(journal, 300);
+        int segmentsBefore = segments().size();
+
+        journal.releaseUpTo(150);
+        List<JournalEntry> afterHalf = new LedgerJournal(directory, SEGMENT_SIZE).recover();
+        journal.releaseUpTo(300);
+
+        assertTrue(segments().size() < segmentsBefore);
+        assertTrue(afterHalf.get(0).sequence() > 1 && afterHalf.get(0).sequence() <= 151, "Unapplied entries must be kept");
+        assertEquals(1, segments().size(), "The segment being written is always kept");
+        List<JournalEntry> remaining = new LedgerJournal(directory, SEGMENT_SIZE).recover();
+        assertEquals(300, remaining.get(remaining.size() - 1).sequence());
+    }
+
+    private List<JournalEntry> appendAndForce(LedgerJournal journal, int count) {
+        List<JournalEntry> entries = Stream.generate(() -> entry(journal.nextSequence())).limit(count).toList();
+        entries.forEach(journal::append);
+        journal.force();
+        return entries;
+    }
+
+    private static JournalEntry entry(long sequence) {
+        return new JournalEntry(sequence, 1000 + sequence, 7, sequence % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL,
+                new BigDecimal("12.34").add(BigDecimal.valueOf(sequence)), "GBP", "reference " + sequence,
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DatabaseTimeInterceptorTest {
+
+    private static final String EXPORT = "/v1/accounts/{accountNumber}/transactions/export";
+
+    @Test
+    @DisplayName("Database time on the thread writing a streamed body is recorded with the request once the body is written")
+    void asyncRequest_recordsTimeFromBothThreads() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DatabaseTimeInterceptor interceptor = new DatabaseTimeInterceptor(registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/accounts/01234567/transactions/export");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, EXPORT);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Callable<Void> body = () -> null;
+
+        interceptor.preHandle(request, response, this);
+        DatabaseTime.add(Duration.ofMillis(2).toNanos());
+        interceptor.afterConcurrentHandlingStarted(request, response, this);
+        // The request thread goes on to serve something else.
+        DatabaseTime.add(Duration.ofMillis(100).toNanos());
+
+        CompletableFuture.runAsync(() -> {
+            ServletWebRequest webRequest = new ServletWebRequest(request, response);
+            interceptor.preProcess(webRequest, body);
+            DatabaseTime.add(Duration.ofMillis(5).toNanos());
+            interceptor.postProcess(webRequest, body, null);
+        }).join();
+
+        interceptor.preHandle(request, response, this);
+        interceptor.afterCompletion(request, response, this, null);
+
+        Timer timer = registry.get("banking.request.database").tag("uri", EXPORT).timer();
+        assertEquals(1, timer.count());
+        assertEquals(7, timer.totalTime(TimeUnit.MILLISECONDS));
+    }
+}
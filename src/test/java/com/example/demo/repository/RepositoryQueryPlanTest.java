@@ -0,0 +1,119 @@
+package com.example.demo.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the repository queries on the request path, captures the SQL Hibernate sends for each one, and checks
+// that H2's plan for it uses the index V2__indexes_for_account_queries.sql assigns to it rather than a table scan.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.demo.repository.RepositoryQueryPlanTest$LastStatement",
+        "banking.synthetic-data.users=200",
+        "banking.synthetic-data.mean-transactions-per-account=10"
+})
+public class RepositoryQueryPlanTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountMonthlyRollupRepository accountMonthlyRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long accountId;
+    private String accountNumber;
+    private long userId;
+    private long transactionId;
+
+    @BeforeEach
+    void pickAccount() {
+        Map<String, Object> account = jdbcTemplate.queryForMap(
+                "SELECT a.id, a.account_number, a.user_id, MIN(t.id) AS transaction_id FROM bank_accounts a "
+                        + "JOIN account_transactions t ON t.account_id = a.id GROUP BY a.id, a.account_number, a.user_id LIMIT 1");
+        accountId = ((Number) account.get("ID")).longValue();
+        accountNumber = (String) account.get("ACCOUNT_NUMBER");
+        userId = ((Number) account.get("USER_ID")).longValue();
+        transactionId = ((Number) account.get("TRANSACTION_ID")).longValue();
+    }
+
+    @Test
+    @DisplayName("findByAccountNumber looks the account up by its unique account number")
+    void findByAccountNumber_usesAccountNumberIndex() {
+        accountRepository.findByAccountNumber(accountNumber);
+        assertPlanUses("UK_BANK_ACCOUNTS_ACCOUNT_NUMBER", accountNumber);
+    }
+
+    @Test
+    @DisplayName("findByUserId reads the user's active accounts from (user_id, is_deleted)")
+    void findByUserId_usesUserDeletedIndex() {
+        accountRepository.findByUserId(userId);
+        assertPlanUses("IDX_BANK_ACCOUNTS_USER_DELETED", userId);
+    }
+
+    @Test
+    @DisplayName("findByAccountId seeks the account's transactions through the account_id foreign key index")
+    void findByAccountId_usesAccountIdIndex() {
+        transactionRepository.findByAccountId(accountId);
+        assertPlanUses("FK_ACCOUNT_TRANSACTIONS_ACCOUNT", accountId);
+    }
+
+    @Test
+    @DisplayName("findByIdAndAccountId looks the transaction up by its primary key")
+    void findByIdAndAccountId_usesPrimaryKey() {
+        transactionRepository.findByIdAndAccountId(transactionId, accountId);
+        assertPlanUses("PRIMARY_KEY", transactionId, accountId);
+    }
+
+    @Test
+    @DisplayName("The monthly summary reads the account's rollups from their primary key")
+    void findRollupsByAccountIdBetween_usesPrimaryKey() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1).minusMonths(11);
+        LocalDate to = LocalDate.now().withDayOfMonth(1);
+        accountMonthlyRollupRepository.findByAccountIdBetween(accountId, from, to);
+        assertPlanUses("PRIMARY_KEY", accountId, from, to);
+    }
+
+    private void assertPlanUses(String index, Object... parameters) {
+        String sql = LastStatement.take();
+        assertNotNull(sql, "No SQL was captured");
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertNotNull(plan);
+        assertTrue(plan.toUpperCase().contains(index), "Expected " + index + " in the plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), "Expected no table scan in the plan:\n" + plan);
+    }
+
+    // Remembers the last statement Hibernate prepared on the current thread.
+    public static class LastStatement implements StatementInspector {
+
+        private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            LAST.set(sql);
+            return sql;
+        }
+
+        static String take() {
+            String sql = LAST.get();
+            LAST.remove();
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.security;
+
+import com.example.demo.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedPasswordEncoderTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Hashes made on the hashing pool verify like plain BCrypt")
+    void encodeAndMatches_roundTrip() {
+        passwordEncoder = new BoundedPasswordEncoder(4, 1, 1, meterRegistry);
+
+        String encoded = passwordEncoder.encode("password123");
+
+        assertTrue(encoded.startsWith("$2a$04$"), "The configured strength must be used");
+        assertTrue(passwordEncoder.matches("password123", encoded));
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertEquals(2, meterRegistry.get("banking.password_hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Callers beyond the hashing threads and queue fail fast instead of waiting")
+    void saturatedPool_rejectsExcessCallers() throws Exception {
+        // Strength 12 keeps the one hashing thread busy for far longer than it takes the callers to arrive.
+        passwordEncoder = new BoundedPasswordEncoder(12, 1, 1, meterRegistry);
+        String encoded = passwordEncoder.encode("password123");
+        AtomicInteger verified = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(callers.submit(() -> {
+                    start.await();
+                    try {
+                        assertTrue(passwordEncoder.matches("password123", encoded));
+                        verified.incrementAndGet();
+                    } catch (PasswordHashingUnavailableException exception) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(CALLERS, verified.get() + rejected.get());
+        assertTrue(verified.get() >= 1, "The callers that got a thread or queue slot must be served");
+        assertTrue(rejected.get() >= CALLERS - 4, "Most callers must be turned away, got " + rejected.get());
+        assertEquals(rejected.get(), meterRegistry.get("banking.password_hashing.rejected").functionCounter().count());
+    }
+}
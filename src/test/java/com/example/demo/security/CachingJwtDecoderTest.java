@@ -0,0 +1,71 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingJwtDecoderTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    @DisplayName("A token is verified once and then served from the cache")
+    void repeatedToken_isVerifiedOnce() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(token -> jwt(token, Instant.now().plusSeconds(3600)), 100);
+
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertSame(first, second);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    @DisplayName("Expired tokens and tokens without an expiry are verified again")
+    void expiredOrUnboundedToken_isNotServedFromCache() {
+        CachingJwtDecoder expiring = new CachingJwtDecoder(token -> jwt(token, Instant.now().minusSeconds(1)), 100);
+        expiring.decode("expired");
+        expiring.decode("expired");
+        assertEquals(2, verifications.get());
+
+        CachingJwtDecoder unbounded = new CachingJwtDecoder(token -> jwt(token, null), 100);
+        unbounded.decode("no-expiry");
+        unbounded.decode("no-expiry");
+        assertEquals(4, verifications.get());
+    }
+
+    @Test
+    @DisplayName("Tokens that fail verification are not cached")
+    void rejectedToken_isVerifiedEveryTime() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            throw new BadJwtException("bad signature");
+        }, 100);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+        assertEquals(2, verifications.get());
+    }
+
+    private Jwt jwt(String token, Instant expiresAt) {
+        verifications.incrementAndGet();
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user@example.com")
+                .claim(AuthenticatedUserJwtConverter.USER_ID_CLAIM, 1L)
+                .issuedAt(Instant.now().minusSeconds(60));
+        if (expiresAt != null) {
+            builder.expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtKeyStoreTest {
+
+    private static final Duration ROTATION_PERIOD = Duration.ofDays(30);
+    private static final Duration TOKEN_LIFETIME = Duration.ofHours(1);
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "EdDSA"})
+    @DisplayName("Tokens signed with a stored key verify after a restart")
+    void storedKey_isReusedAcrossRestarts(String algorithm) throws Exception {
+        Path keyStore = directory.resolve("jwt-keys.json");
+        JWKSet first = store(keyStore, algorithm).load();
+        String token = sign(first, "user@example.com");
+
+        JWKSet reloaded = store(keyStore, algorithm).load();
+
+        assertEquals(first.getKeys().get(0).getKeyID(), reloaded.getKeys().get(0).getKeyID());
+        assertEquals("user@example.com", decoder(reloaded).decode(token).getSubject());
+        assertEquals(algorithm, decoder(reloaded).decode(token).getHeaders().get("alg").toString());
+    }
+
+    @Test
+    @DisplayName("Changing the algorithm rotates the signing key and keeps the old one for verification")
+    void algorithmChange_rotatesAndKeepsPreviousKey() throws Exception {
+        Path keyStore = directory.resolve("jwt-keys.json");
+        JWKSet before = store(keyStore, "RS256").load();
+        String oldToken = sign(before, "old@example.com");
+
+        JWKSet after = store(keyStore, "EdDSA").load();
+        String newToken = sign(after, "new@example.com");
+
+        assertEquals(2, after.getKeys().size());
+        assertNotEquals(before.getKeys().get(0).getKeyID(), after.getKeys().get(0).getKeyID());
+        assertEquals("old@example.com", decoder(after).decode(oldToken).getSubject());
+        assertEquals("new@example.com", decoder(after).decode(newToken).getSubject());
+        assertEquals(after.getKeys().get(0).getKeyID(), decoder(after).decode(newToken).getHeaders().get("kid"));
+    }
+
+    @Test
+    @DisplayName("Tokens signed by a key that is not in the set are rejected")
+    void unknownKey_isRejected() throws Exception {
+        JWKSet ours = store(directory.resolve("ours.json"), "ES256").load();
+        JWKSet theirs = store(directory.resolve("theirs.json"), "ES256").load();
+
+        assertThrows(BadJwtException.class, () -> decoder(ours).decode(sign(theirs, "intruder@example.com")));
+    }
+
+    @Test
+    @DisplayName("Instances rotating at the same time converge on one signing key")
+    void concurrentRotations_convergeOnOneSigningKey() throws Exception {
+        Path keyStore = directory.resolve("jwt-keys.json");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<JWKSet>> loads = new ArrayList<>();
+        try (ExecutorService instances = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                loads.add(instances.submit(() -> {
+                    start.await();
+                    return store(keyStore, "ES256").load();
+                }));
+            }
+            start.countDown();
+            for (Future<JWKSet> load : loads) {
+                assertEquals(1, load.get().getKeys().size());
+                assertEquals(loads.get(0).get().getKeys().get(0).getKeyID(), load.get().getKeys().get(0).getKeyID());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A running instance picks up a key another instance rotated to on its next reload")
+    void reload_picksUpKeyRotatedByAnotherInstance() throws Exception {
+        Path keyStore = directory.resolve("jwt-keys.json");
+        ReloadingJwtKeySet running = new ReloadingJwtKeySet(store(keyStore, "ES256"));
+        String oldToken = sign(running, "old@example.com");
+
+        // Another instance sharing the file, whose rotation period has already passed.
+        JWKSet rotated = new JwtKeyStore(keyStore, JWSAlgorithm.ES256, Duration.ZERO, TOKEN_LIFETIME).load();
+        running.reload();
+        String newToken = sign(running, "new@example.com");
+
+        JwtDecoder decoder = new NimbusJwtDecoder(new JwkSetJwtProcessor(running::select));
+        assertEquals(rotated.getKeys().get(0).getKeyID(), running.signingKeyId());
+        assertEquals("old@example.com", decoder.decode(oldToken).getSubject());
+        assertEquals("new@example.com", decoder(rotated).decode(newToken).getSubject());
+    }
+
+    private static JwtKeyStore store(Path keyStore, String algorithm) {
+        return new JwtKeyStore(keyStore, JWSAlgorithm.parse(algorithm), ROTATION_PERIOD, TOKEN_LIFETIME);
+    }
+
+    private static String sign(JWKSet keySet, String subject) throws JOSEException {
+        return new SigningKeyJwtEncoder(keySet.getKeys().get(0)).encode(JwtEncoderParameters.from(claims(subject))).getTokenValue();
+    }
+
+    private static String sign(ReloadingJwtKeySet keySet, String subject) {
+        return keySet.encode(JwtEncoderParameters.from(claims(subject))).getTokenValue();
+    }
+
+    private static JwtClaimsSet claims(String subject) {
+        return JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(TOKEN_LIFETIME))
+                .subject(subject)
+                .build();
+    }
+
+    private static JwtDecoder decoder(JWKSet keySet) {
+        return new NimbusJwtDecoder(new JwkSetJwtProcessor(new ImmutableJWKSet<>(keySet.toPublicJWKSet())));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.accounts.UpdateAccountRequestDto;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Account;
+import com.example.demo.model.AccountSnapshot;
+import com.example.demo.model.Address;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class AccountCacheTest {
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Account account;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        Address address = new Address("2 Cache Lane", null, null, "Memory Town", "Test County", "MT1 1MT");
+        user = userRepository.save(new User("cache@example.com", "password", "USER", "Cache User", address, "+441234567891"));
+        account = new Account("Cached Account", AccountType.PERSONAL, user);
+        account.setAccountNumber("99000002");
+        account = accountRepository.save(account);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(user.getId(), user.getEmail()), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        transactionRepository.deleteAll(transactionRepository.findByAccountId(account.getId()));
+        accountRepository.deleteById(account.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Cached accounts are served from memory and never outlive a committed write")
+    void committedWritesEvictCachedAccounts() {
+        long hitsBefore = accountCache.accountsByNumberStats().hitCount();
+        assertEquals(0, BigDecimal.ZERO.compareTo(cachedBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cachedBalance()));
+        assertEquals(hitsBefore + 1, accountCache.accountsByNumberStats().hitCount(), "The second read must be a cache hit");
+
+        transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("42.50"), "GBP", TransactionType.DEPOSIT, "cache"));
+        assertEquals(0, new BigDecimal("42.50").compareTo(cachedBalance()), "A balance change must evict the cached account");
+
+        assertEquals(1, cachedAccountsOfUser().size());
+        accountService.updateAccount(account.getAccountNumber(), new UpdateAccountRequestDto("Renamed Account", null));
+        assertEquals("Renamed Account", cachedAccountsOfUser().get(0).name(), "An update must evict the owner's account list");
+
+        transactionService.createTransaction(account.getAccountNumber(),
+                new CreateTransactionRequestDto(new BigDecimal("42.50"), "GBP", TransactionType.WITHDRAWAL, "cache"));
+        accountService.deleteAccount(account.getAccountNumber());
+        assertEquals(0, cachedAccountsOfUser().size(), "A deleted account must drop out of the owner's account list");
+    }
+
+    private BigDecimal cachedBalance() {
+        return readOnlyTransaction.execute(status ->
+                accountCache.findByAccountNumber(account.getAccountNumber()).map(AccountSnapshot::balance).orElseThrow());
+    }
+
+    private List<AccountSnapshot> cachedAccountsOfUser() {
+        return readOnlyTransaction.execute(status -> accountCache.findByUserId(user.getId()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.metrics.BankingMetrics;
+import com.example.demo.model.AccountNumberBlock;
+import com.example.demo.repository.AccountNumberBlockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccountNumberAllocatorTest {
+
+    @Test
+    @DisplayName("Counters map to distinct, non-sequential 8-digit account numbers")
+    void permutationIsCollisionFree() {
+        AccountNumberAllocator allocator = allocator(mock(AccountNumberBlockRepository.class), 100);
+
+        Set<Long> numbers = new HashSet<>();
+        for (long counter = 0; counter < 1_000_000; counter++) {
+            long number = allocator.permute(counter);
+            assertTrue(number >= 0 && number < 100_000_000L, "Account number out of range: " + number);
+            assertTrue(numbers.add(number), "Duplicate account number for counter " + counter);
+        }
+        assertTrue(Math.abs(allocator.permute(1) - allocator.permute(0)) > 1, "Consecutive counters must not give consecutive numbers");
+    }
+
+    @Test
+    @DisplayName("Instances drawing from the shared counter never issue the same number")
+    void instancesSharingTheCounterNeverCollide() {
+        List<AccountNumberBlock> blocks = new ArrayList<>();
+        AccountNumberBlockRepository repository = sharedCounter(blocks);
+        AccountNumberAllocator first = allocator(repository, 10);
+        AccountNumberAllocator second = allocator(repository, 10);
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            String fromFirst = first.nextAccountNumber();
+            String fromSecond = second.nextAccountNumber();
+            assertEquals(8, fromFirst.length());
+            assertTrue(numbers.add(fromFirst), "Duplicate account number " + fromFirst);
+            assertTrue(numbers.add(fromSecond), "Duplicate account number " + fromSecond);
+        }
+        assertEquals(200, blocks.size(), "Each instance reserves one block per ten numbers");
+    }
+
+    @Test
+    @DisplayName("Blocks reserved with different sizes never overlap")
+    void blocksOfDifferentSizesNeverOverlap() {
+        List<AccountNumberBlock> blocks = new ArrayList<>();
+        AccountNumberBlockRepository repository = sharedCounter(blocks);
+        AccountNumberAllocator small = allocator(repository, 10);
+        AccountNumberAllocator large = allocator(repository, 25);
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(numbers.add(small.nextAccountNumber()), "Duplicate account number from the small blocks");
+            assertTrue(numbers.add(large.nextAccountNumber()), "Duplicate account number from the large blocks");
+        }
+
+        List<AccountNumberBlock> byStart = blocks.stream().sorted(Comparator.comparingLong(AccountNumberBlock::getStartCounter)).toList();
+        for (int i = 1; i < byStart.size(); i++) {
+            AccountNumberBlock previous = byStart.get(i - 1);
+            assertEquals(previous.getStartCounter() + previous.getBlockSize(), byStart.get(i).getStartCounter(),
+                    "Blocks must follow each other without gaps or overlaps");
+        }
+    }
+
+    // Stands in for the counter row and the blocks table, as one instance's reservations see them.
+    private static AccountNumberBlockRepository sharedCounter(List<AccountNumberBlock> blocks) {
+        AtomicLong counter = new AtomicLong();
+        AccountNumberBlockRepository repository = mock(AccountNumberBlockRepository.class);
+        when(repository.advanceCounter(anyLong())).thenAnswer(invocation -> {
+            counter.addAndGet(invocation.getArgument(0));
+            return 1;
+        });
+        when(repository.findNextCounter()).thenAnswer(invocation -> counter.get());
+        when(repository.save(any(AccountNumberBlock.class))).thenAnswer(invocation -> {
+            AccountNumberBlock block = invocation.getArgument(0);
+            block.setId((long) blocks.size() + 1);
+            blocks.add(block);
+            return block;
+        });
+        return repository;
+    }
+
+    private AccountNumberAllocator allocator(AccountNumberBlockRepository repository, int blockSize) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new AccountNumberAllocator(repository, transactionManager, new BankingMetrics(new SimpleMeterRegistry()), blockSize, 4417250398152613L);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.transactions.CreateTransactionBatchRequestDto;
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
+import com.example.demo.dto.transactions.MonthlySummaryDto;
+import com.example.demo.dto.transactions.MonthlySummaryResponseDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.model.Account;
+import com.example.demo.model.Address;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:monthly-summary;DB_CLOSE_DELAY=-1",
+        "banking.synthetic-data.users=100",
+        "banking.synthetic-data.mean-transactions-per-account=10"
+})
+public class MonthlySummaryTest {
+
+    // Rows where the rollups and the transactions they summarise disagree, in either direction.
+    private static final String TRANSACTION_TOTALS = "SELECT account_id, CAST(DATE_TRUNC(MONTH, timestamp) AS DATE), transaction_type, "
+            + "COUNT(*), SUM(amount) FROM account_transactions "
+            + "GROUP BY account_id, CAST(DATE_TRUNC(MONTH, timestamp) AS DATE), transaction_type";
+    private static final String ROLLUPS = "SELECT account_id, month_start, transaction_type, transaction_count, total_amount "
+            + "FROM account_monthly_rollups";
+    private static final String MISMATCHES = "SELECT COUNT(*) FROM ((" + TRANSACTION_TOTALS + " EXCEPT " + ROLLUPS + ") UNION ALL ("
+            + ROLLUPS + " EXCEPT " + TRANSACTION_TOTALS + "))";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Account current;
+    private Account savings;
+
+    @BeforeEach
+    void setUp() {
+        Address address = new Address("3 Rollup Row", null, null, "Summary Town", "Test County", "ST1 1ST");
+        user = userRepository.save(new User("rollups@example.com", "password", "USER", "Rollup User", address, "+441234567892"));
+        current = openAccount("Current Account");
+        savings = openAccount("Savings Account");
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                new AuthenticatedUser(user.getId(), user.getEmail()), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM account_transactions WHERE account_id IN (?, ?)", current.getId(), savings.getId());
+        accountRepository.deleteAllById(List.of(current.getId(), savings.getId()));
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Single, batched and transfer writes keep the rollups equal to the transactions they summarise")
+    void everyWritePath_keepsRollupsInStepWithTransactions() {
+        transactionService.createTransaction(current.getAccountNumber(), request("100.00", TransactionType.DEPOSIT));
+        transactionService.createTransaction(current.getAccountNumber(), request("30.00", TransactionType.WITHDRAWAL));
+        transactionService.createTransactions(current.getAccountNumber(), new CreateTransactionBatchRequestDto(List.of(
+                request("20.00", TransactionType.DEPOSIT),
+                request("5.00", TransactionType.WITHDRAWAL),
+                request("1000.00", TransactionType.WITHDRAWAL))));
+        transactionService.createTransfer(current.getAccountNumber(),
+                new CreateTransferRequestDto(savings.getAccountNumber(), new BigDecimal("15.00"), "GBP", "to savings"));
+
+        assertEquals(0, jdbcTemplate.queryForObject(MISMATCHES, Long.class));
+
+        MonthlySummaryResponseDto summary = transactionService.getMonthlySummary(current.getAccountNumber(), null, null);
+        YearMonth thisMonth = YearMonth.now();
+        assertEquals(thisMonth.minusMonths(11), summary.from());
+        assertEquals(List.of(new MonthlySummaryDto(thisMonth, 2, new BigDecimal("120.00"), 3, new BigDecimal("50.00"))), summary.months());
+
+        MonthlySummaryDto savingsMonth = transactionService.getMonthlySummary(savings.getAccountNumber(), null, null).months().getFirst();
+        assertEquals(1, savingsMonth.depositCount());
+        assertEquals(0, new BigDecimal("15.00").compareTo(savingsMonth.depositTotal()));
+    }
+
+    @Test
+    @DisplayName("A summary range outside the account's activity is empty, and a reversed range is rejected")
+    void summaryRange_isRespected() {
+        transactionService.createTransaction(current.getAccountNumber(), request("10.00", TransactionType.DEPOSIT));
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+
+        assertEquals(List.of(), transactionService.getMonthlySummary(current.getAccountNumber(), "2000-01", lastMonth.toString()).months());
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getMonthlySummary(current.getAccountNumber(), YearMonth.now().toString(), lastMonth.toString()));
+    }
+
+    // Fresh account numbers for every test, so no snapshot cached by an earlier test applies.
+    private Account openAccount(String name) {
+        Account account = new Account(name, AccountType.PERSONAL, user);
+        account.setAccountNumber(accountNumberAllocator.nextAccountNumber());
+        return accountRepository.save(account);
+    }
+
+    private static CreateTransactionRequestDto request(String amount, TransactionType type) {
+        return new CreateTransactionRequestDto(new BigDecimal(amount), "GBP", type, "rollup test");
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.transactions.CreateTransactionRequestDto;
+import com.example.demo.dto.transactions.CreateTransferRequestDto;
+import com.example.demo.enums.AccountType;
+import com.example.demo.enums.TransactionType;
+import com.example.demo.exception.InsufficientFundsException;
+import com.example.demo.model.Account;
+import com.example.demo.model.Address;
+import com.example.demo.model.Transaction;
+import com.example.demo.model.User;
+import com.example.demo.repository.AccountRepository;
+import com.example.demo.repository.TransactionRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class TransactionServiceConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionServiceConcurrencyTest.class);
+
+    private static final int OPERATIONS = 2000;
+    private static final int THREADS = 16;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal DEPOSIT_AMOUNT = new BigDecimal("10.00");
+    private static final BigDecimal WITHDRAWAL_AMOUNT = new BigDecimal("15.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final String userEmail = "concurrency@example.com";
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Address address = new Address("1 Lock Street", null, null, "Contention City", "Test County", "CC1 1CC");
+        user = userRepository.save(new User(userEmail, "password", "USER", "Concurrency User", address, "+441234567890"));
+        account = new Account("Hot Account", AccountType.BUSINESS, user);
+        account.setAccountNumber("99000001");
+        account.setBalance(INITIAL_BALANCE);
+        account = accountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll(transactionRepository.findByAccountId(account.getId()));
+        accountRepository.deleteById(account.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent deposits and withdrawals on one account never lose an update")
+    void concurrentDepositsAndWithdrawals_finalBalanceIsExact() throws Exception {
+        AtomicInteger deposits = new AtomicInteger();
+        AtomicInteger withdrawals = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+
+        runConcurrently(index -> {
+            TransactionType type = index % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            BigDecimal amount = type == TransactionType.DEPOSIT ? DEPOSIT_AMOUNT : WITHDRAWAL_AMOUNT;
+            try {
+                transactionService.createTransaction(account.getAccountNumber(),
+                        new CreateTransactionRequestDto(amount, "GBP", type, "concurrency " + index));
+                (type == TransactionType.DEPOSIT ? deposits : withdrawals).incrementAndGet();
+            } catch (InsufficientFundsException exception) {
+                rejections.incrementAndGet();
+            }
+        });
+
+        BigDecimal expectedBalance = INITIAL_BALANCE
+                .add(DEPOSIT_AMOUNT.multiply(BigDecimal.valueOf(deposits.get())))
+                .subtract(WITHDRAWAL_AMOUNT.multiply(BigDecimal.valueOf(withdrawals.get())));
+        BigDecimal finalBalance = accountRepository.findBalanceById(account.getId()).orElseThrow();
+        List<Transaction> transactions = transactionRepository.findByAccountId(account.getId());
+
+        assertEquals(OPERATIONS, deposits.get() + withdrawals.get() + rejections.get());
+        assertEquals(OPERATIONS / 2, deposits.get(), "Deposits must never be rejected");
+        assertEquals(0, expectedBalance.compareTo(finalBalance), "Final balance must match the applied transactions");
+        assertTrue(finalBalance.signum() >= 0, "Balance must never go negative");
+        assertEquals(deposits.get() + withdrawals.get(), transactions.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent transfers in both directions among a few accounts never deadlock and conserve money")
+    void concurrentTransfers_neverDeadlockAndConserveTheTotal() throws Exception {
+        List<Account> accounts = new ArrayList<>(List.of(account));
+        for (int i = 1; i < 4; i++) {
+            Account other = new Account("Transfer Account " + i, AccountType.BUSINESS, user);
+            other.setAccountNumber(String.valueOf(99000001 + i));
+            other.setBalance(INITIAL_BALANCE);
+            accounts.add(accountRepository.save(other));
+        }
+        AtomicInteger transfers = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+
+        try {
+            long elapsedNanos = runConcurrently(index -> {
+                // Pairs run both ways round, so opposite-direction transfers on the same two rows are common.
+                Account source = accounts.get(index % accounts.size());
+                Account destination = accounts.get((index + 1 + (index / accounts.size()) % (accounts.size() - 1)) % accounts.size());
+                try {
+                    transactionService.createTransfer(source.getAccountNumber(),
+                            new CreateTransferRequestDto(destination.getAccountNumber(), DEPOSIT_AMOUNT, "GBP", "transfer " + index));
+                    transfers.incrementAndGet();
+                } catch (InsufficientFundsException exception) {
+                    rejections.incrementAndGet();
+                }
+            });
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (Account each : accounts) {
+                BigDecimal balance = accountRepository.findBalanceById(each.getId()).orElseThrow();
+                assertTrue(balance.signum() >= 0, "Balance must never go negative");
+                total = total.add(balance);
+            }
+            List<Transaction> legs = accounts.stream()
+                    .flatMap(each -> transactionRepository.findByAccountId(each.getId()).stream())
+                    .toList();
+            Map<String, Long> legsPerTransfer = legs.stream()
+                    .collect(Collectors.groupingBy(Transaction::getTransferReference, Collectors.counting()));
+
+            assertEquals(OPERATIONS, transfers.get() + rejections.get());
+            assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts.size())).compareTo(total), "Transfers must conserve the total");
+            assertEquals(transfers.get(), legsPerTransfer.size());
+            assertTrue(legsPerTransfer.values().stream().allMatch(count -> count == 2), "Every transfer must have a debit and a credit");
+
+            logger.info("{} transfers among {} accounts with {} threads: {} ops/s, {} rejected for insufficient funds",
+                    transfers.get(), accounts.size(), THREADS, Math.round(OPERATIONS / (elapsedNanos / 1_000_000_000.0)), rejections.get());
+        } finally {
+            for (Account each : accounts.subList(1, accounts.size())) {
+                transactionRepository.deleteAll(transactionRepository.findByAccountId(each.getId()));
+                accountRepository.deleteById(each.getId());
+            }
+        }
+    }
+
+    private long runConcurrently(IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(OPERATIONS);
+            long start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                            new AuthenticatedUser(user.getId(), userEmail), null, List.of(new SimpleGrantedAuthority("SCOPE_ROLE_USER"))));
+                    try {
+                        task.run(index);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.utils;
+
+import com.example.demo.utils.SyntheticDataGenerator.Settings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:synthetic-data;DB_CLOSE_DELAY=-1",
+        "banking.synthetic-data.users=300",
+        "banking.synthetic-data.mean-transactions-per-account=20",
+        "banking.synthetic-data.hot-account-ratio=0.01",
+        "banking.synthetic-data.workers=3",
+        "banking.synthetic-data.batch-size=100"
+})
+public class SyntheticDataGeneratorTest {
+
+    private static final String SYNTHETIC_ACCOUNTS = "SELECT a.id FROM bank_accounts a JOIN users u ON u.id = a.user_id "
+            + "WHERE u.email LIKE '%@synthetic.example'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Every synthetic user is written, with balances that match their transactions")
+    void generatedData_isComplete_andConsistent() {
+        assertEquals(300, count("SELECT COUNT(*) FROM users WHERE email LIKE '%@synthetic.example'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM bank_accounts WHERE id IN (" + SYNTHETIC_ACCOUNTS + ") AND (balance < 0 OR balance <> "
+                + "(SELECT COALESCE(SUM(CASE WHEN t.transaction_type = 'DEPOSIT' THEN t.amount ELSE -t.amount END), 0) "
+                + "FROM account_transactions t WHERE t.account_id = bank_accounts.id))"));
+    }
+
+    @Test
+    @DisplayName("Transactions per account are heavy-tailed")
+    void transactionsPerAccount_areHeavyTailed() {
+        long accounts = count("SELECT COUNT(*) FROM (" + SYNTHETIC_ACCOUNTS + ")");
+        long transactions = count("SELECT COUNT(*) FROM account_transactions WHERE account_id IN (" + SYNTHETIC_ACCOUNTS + ")");
+        long busiest = count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM account_transactions WHERE account_id IN ("
+                + SYNTHETIC_ACCOUNTS + ") GROUP BY account_id)");
+
+        assertTrue(busiest > 10 * transactions / accounts,
+                "Busiest account has " + busiest + " transactions against a mean of " + transactions / accounts);
+    }
+
+    @Test
+    @DisplayName("The same seed and user index always give the same user")
+    void sameSeed_givesSameUser() {
+        Settings settings = new Settings(300, 42, 20, 0.01, 100, 365);
+        LocalDateTime until = LocalDate.now().atStartOfDay();
+
+        assertEquals(SyntheticDataGenerator.user(settings, 17, until), SyntheticDataGenerator.user(settings, 17, until));
+        assertEquals(SyntheticDataGenerator.user(settings, 17, until).accounts().size(), count(
+                "SELECT COUNT(*) FROM bank_accounts a JOIN users u ON u.id = a.user_id WHERE u.email = 'user17@synthetic.example'"));
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+}